@@ -0,0 +1,139 @@
+package com.ecommerce.dynamic_pricing_backend.benchmark;
+
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.entity.DiscountRule;
+import com.ecommerce.dynamic_pricing_backend.entity.Order;
+import com.ecommerce.dynamic_pricing_backend.entity.OrderItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic carts, orders, promotions and rules shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+    static final String[] CATEGORIES = {"Electronics", "Books", "Clothing", "Home", "Sports"};
+    static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Stark"};
+
+    private BenchmarkFixtures() {
+    }
+
+    // stub-only mocks do not record invocations, so they do not leak memory over millions of calls
+    static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+        user.setPassword("not-used");
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setPhone("0770000000");
+        user.setRole(User.Role.CUSTOMER);
+        return user;
+    }
+
+    static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setDescription("Synthetic product " + id);
+        product.setPrice(BigDecimal.valueOf(1_000 + (id * 3_737) % 50_000, 2));
+        product.setStockQuantity(1_000);
+        product.setCategory(CATEGORIES[(int) (id % CATEGORIES.length)]);
+        product.setBrand(BRANDS[(int) ((id / CATEGORIES.length) % BRANDS.length)]);
+        product.setImageUrl("https://example.com/" + id + ".png");
+        return product;
+    }
+
+    static Cart cart(int lines) {
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cart.setUser(user());
+        for (int i = 0; i < lines; i++) {
+            Product product = product(i + 1);
+            int quantity = 1 + i % 3;
+
+            CartItem item = new CartItem();
+            item.setId((long) i + 1);
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(quantity);
+            item.setUnitPrice(product.getPrice());
+            item.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+            cart.getItems().add(item);
+        }
+        return cart;
+    }
+
+    static Order order(int lines) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-BENCH-1");
+        order.setUser(user());
+        order.setSubtotal(BigDecimal.ZERO);
+        order.setTotalAmount(BigDecimal.ZERO);
+        for (CartItem cartItem : cart(lines).getItems()) {
+            OrderItem item = new OrderItem();
+            item.setId(cartItem.getId());
+            item.setOrder(order);
+            item.setProduct(cartItem.getProduct());
+            item.setQuantity(cartItem.getQuantity());
+            item.setUnitPrice(cartItem.getUnitPrice());
+            item.setTotalPrice(cartItem.getTotalPrice());
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+
+    static List<Promotion> promotions() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Promotion> promotions = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            Promotion promotion = new Promotion();
+            promotion.setId((long) i + 1);
+            promotion.setName("Promotion " + i);
+            promotion.setCode("BENCH" + i);
+            promotion.setDiscountType(i % 2 == 0 ? Promotion.DiscountType.PERCENTAGE : Promotion.DiscountType.FIXED_AMOUNT);
+            promotion.setDiscountValue(BigDecimal.valueOf(5 + i));
+            promotion.setMaxDiscountAmount(BigDecimal.valueOf(50));
+            promotion.setStartDate(now.minusDays(1));
+            promotion.setEndDate(now.plusDays(30));
+            promotion.setCategory(CATEGORIES[i]);
+            promotion.setBrand(BRANDS[i]);
+            promotions.add(promotion);
+        }
+        return promotions;
+    }
+
+    static List<DiscountRule> discountRules() {
+        DiscountRule cartTotal = new DiscountRule();
+        cartTotal.setId(1L);
+        cartTotal.setName("Spend 100, save 5%");
+        cartTotal.setRuleType(DiscountRule.RuleType.CART_TOTAL);
+        cartTotal.setConditionOperator(DiscountRule.ConditionOperator.GREATER_THAN_OR_EQUAL);
+        cartTotal.setConditionValue("100");
+        cartTotal.setDiscountType(DiscountRule.DiscountType.PERCENTAGE);
+        cartTotal.setDiscountValue(BigDecimal.valueOf(5));
+
+        DiscountRule quantity = new DiscountRule();
+        quantity.setId(2L);
+        quantity.setName("10 items, save 10");
+        quantity.setRuleType(DiscountRule.RuleType.QUANTITY_BASED);
+        quantity.setConditionOperator(DiscountRule.ConditionOperator.GREATER_THAN);
+        quantity.setConditionValue("10");
+        quantity.setDiscountType(DiscountRule.DiscountType.FIXED_AMOUNT);
+        quantity.setDiscountValue(BigDecimal.TEN);
+
+        return List.of(cartTotal, quantity);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.dynamic_pricing_backend.benchmark;
+
+import com.ecommerce.dynamic_pricing_backend.config.CompactCacheSerializer;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a single product and the whole-catalog list with each cache value serializer.
+ * The payload sizes themselves are compared by {@code CompactCacheSerializerTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+    @Param({"binary", "json", "jdk"})
+    private String serializer;
+
+    @Param({"1", "1000"})
+    private int products;
+
+    private RedisSerializer<Object> redisSerializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        switch (serializer) {
+            case "binary" -> redisSerializer = new CompactCacheSerializer(1024);
+            case "json" -> redisSerializer = new GenericJackson2JsonRedisSerializer()
+                    .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+            default -> redisSerializer = RedisSerializer.java();
+        }
+
+        List<ProductDto> catalog = new ArrayList<>();
+        for (int i = 1; i <= products; i++) {
+            catalog.add(productDto(BenchmarkFixtures.product(i)));
+        }
+        value = products == 1 ? catalog.get(0) : catalog;
+        encoded = redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return redisSerializer.deserialize(encoded);
+    }
+
+    private static ProductDto productDto(Product product) {
+        ProductDto dto = new ProductDto();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription("Description of " + product.getName());
+        dto.setPrice(product.getPrice());
+        dto.setDiscountedPrice(product.getPrice());
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setCategory(product.getCategory());
+        dto.setBrand(product.getBrand());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setActive(true);
+        dto.setCreatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        dto.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        return dto;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.dynamic_pricing_backend.benchmark;
+
+import com.ecommerce.dynamic_pricing_backend.config.DroolsConfig;
+import com.ecommerce.dynamic_pricing_backend.dto.CartDto;
+import com.ecommerce.dynamic_pricing_backend.dto.OrderDto;
+import com.ecommerce.dynamic_pricing_backend.repository.CartItemRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.CartRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.DiscountRuleRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.OrderItemRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.OrderRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.PricingRuleVersionRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.ProductRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.PromotionRepository;
+import com.ecommerce.dynamic_pricing_backend.service.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures CartService.convertToDto (cart view, including repricing) and OrderService.convertToDto
+ * (order view) through their public read paths, with the repositories stubbed out.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartAndOrderMappingBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    private CartService cartService;
+    private OrderService orderService;
+
+    @Setup
+    public void setUp() {
+        PromotionRepository promotionRepository = BenchmarkFixtures.stub(PromotionRepository.class);
+        when(promotionRepository.findCurrentAndUpcomingPromotions(any())).thenReturn(BenchmarkFixtures.promotions());
+        ActivePromotionIndex promotionIndex = new ActivePromotionIndex(promotionRepository, new ConcurrentMapCacheManager(),
+                BenchmarkFixtures.stub(CatalogVersions.class));
+        PricingService pricingService = new PricingService(new DiscountRuleEvaluator(BenchmarkFixtures.stub(DiscountRuleRepository.class)),
+                promotionRepository, new PricingEngines(List.of(new DroolsPricingEngine(new PricingRuleService(
+                BenchmarkFixtures.stub(PricingRuleVersionRepository.class), new DroolsConfig().kieContainer()))),
+                DroolsPricingEngine.NAME), promotionIndex, new CartPricingCache(1, Duration.ZERO));
+
+        CartRepository cartRepository = BenchmarkFixtures.stub(CartRepository.class);
+        when(cartRepository.findByUserIdWithItems(anyLong())).thenReturn(Optional.of(BenchmarkFixtures.cart(lines)));
+        cartService = new CartService(cartRepository, BenchmarkFixtures.stub(CartItemRepository.class),
+                BenchmarkFixtures.stub(ProductRepository.class), pricingService,
+                BenchmarkFixtures.stub(HotCartStore.class));
+
+        OrderRepository orderRepository = BenchmarkFixtures.stub(OrderRepository.class);
+        when(orderRepository.findByIdWithItems(anyLong())).thenReturn(Optional.of(BenchmarkFixtures.order(lines)));
+        orderService = new OrderService(orderRepository, BenchmarkFixtures.stub(OrderItemRepository.class),
+                cartRepository, cartService, BenchmarkFixtures.stub(ProductService.class), pricingService,
+                BenchmarkFixtures.stub(PaymentService.class), BenchmarkFixtures.stub(PromotionService.class),
+                BenchmarkFixtures.stub(InventoryReservationService.class));
+    }
+
+    @Benchmark
+    public CartDto cartView() {
+        return cartService.getCartByUserId(1L);
+    }
+
+    @Benchmark
+    public OrderDto orderView() {
+        return orderService.getOrderByIdForAdmin(1L);
+    }
+}
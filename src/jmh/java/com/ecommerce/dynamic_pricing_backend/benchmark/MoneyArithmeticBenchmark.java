@@ -0,0 +1,77 @@
+package com.ecommerce.dynamic_pricing_backend.benchmark;
+
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.service.MinorUnitPricing;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the BigDecimal cart total and promotion discount arithmetic with the long minor-unit kernel.
+ * Run with the gc profiler (the profile default) to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyArithmeticBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    private int cartLines;
+
+    private Cart cart;
+    private long[] unitPrices;
+    private int[] quantities;
+
+    private final BigDecimal percentage = new BigDecimal("12.50");
+    private final BigDecimal maxDiscount = new BigDecimal("150.00");
+
+    @Setup
+    public void setUp() {
+        cart = BenchmarkFixtures.cart(cartLines);
+        unitPrices = new long[cartLines];
+        quantities = new int[cartLines];
+        for (int i = 0; i < cartLines; i++) {
+            CartItem item = cart.getItems().get(i);
+            unitPrices[i] = MinorUnitPricing.toMinorUnits(item.getUnitPrice());
+            quantities[i] = item.getQuantity();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDiscount() {
+        BigDecimal cartTotal = cart.getItems().stream()
+                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal discount = cartTotal.multiply(percentage.divide(BigDecimal.valueOf(100)));
+        if (discount.compareTo(maxDiscount) > 0) {
+            discount = maxDiscount;
+        }
+        return discount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal minorUnitDiscountFromEntities() {
+        // includes the BigDecimal -> long conversion at the entity boundary
+        long cartTotal = 0L;
+        for (CartItem item : cart.getItems()) {
+            cartTotal += MinorUnitPricing.lineTotal(MinorUnitPricing.toMinorUnits(item.getUnitPrice()), item.getQuantity());
+        }
+        return MinorUnitPricing.toBigDecimal(MinorUnitPricing.promotionDiscount(cartTotal, true,
+                MinorUnitPricing.toBasisPoints(percentage), MinorUnitPricing.NO_LIMIT,
+                MinorUnitPricing.toMinorUnits(maxDiscount)));
+    }
+
+    @Benchmark
+    public long minorUnitDiscount() {
+        long cartTotal = 0L;
+        for (int i = 0; i < unitPrices.length; i++) {
+            cartTotal += MinorUnitPricing.lineTotal(unitPrices[i], quantities[i]);
+        }
+        return MinorUnitPricing.promotionDiscount(cartTotal, true, 1250L, MinorUnitPricing.NO_LIMIT, 15_000L);
+    }
+}
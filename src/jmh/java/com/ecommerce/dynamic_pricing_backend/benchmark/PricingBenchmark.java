@@ -0,0 +1,133 @@
+package com.ecommerce.dynamic_pricing_backend.benchmark;
+
+import com.ecommerce.dynamic_pricing_backend.config.DroolsConfig;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.DiscountRuleRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.PricingRuleVersionRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.PromotionRepository;
+import com.ecommerce.dynamic_pricing_backend.service.ActivePromotionIndex;
+import com.ecommerce.dynamic_pricing_backend.service.CartPricingCache;
+import com.ecommerce.dynamic_pricing_backend.service.CatalogVersions;
+import com.ecommerce.dynamic_pricing_backend.service.DiscountRuleEvaluator;
+import com.ecommerce.dynamic_pricing_backend.service.DroolsPricingEngine;
+import com.ecommerce.dynamic_pricing_backend.service.NativePricingEngine;
+import com.ecommerce.dynamic_pricing_backend.service.PricingEngine;
+import com.ecommerce.dynamic_pricing_backend.service.PricingEngines;
+import com.ecommerce.dynamic_pricing_backend.service.PricingRuleService;
+import com.ecommerce.dynamic_pricing_backend.service.PricingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    private int cartLines;
+
+    private PricingService droolsPricingService;
+    private PricingService manualPricingService;
+    private PricingService cachedPricingService;
+    private Cart cart;
+    private List<Product> products;
+    private List<ProductDto> listings;
+
+    @Setup
+    public void setUp() {
+        PromotionRepository promotionRepository = BenchmarkFixtures.stub(PromotionRepository.class);
+        when(promotionRepository.findCurrentAndUpcomingPromotions(any())).thenReturn(BenchmarkFixtures.promotions());
+        DiscountRuleRepository discountRuleRepository = BenchmarkFixtures.stub(DiscountRuleRepository.class);
+        when(discountRuleRepository.findByActiveTrueOrderByPriorityDesc()).thenReturn(BenchmarkFixtures.discountRules());
+        DiscountRuleEvaluator discountRuleEvaluator = new DiscountRuleEvaluator(discountRuleRepository);
+
+        ActivePromotionIndex promotionIndex = new ActivePromotionIndex(promotionRepository, new ConcurrentMapCacheManager(),
+                BenchmarkFixtures.stub(CatalogVersions.class));
+        promotionIndex.refresh();
+
+        PricingRuleService pricingRuleService = new PricingRuleService(
+                BenchmarkFixtures.stub(PricingRuleVersionRepository.class), new DroolsConfig().kieContainer());
+        DroolsPricingEngine droolsEngine = new DroolsPricingEngine(pricingRuleService);
+        PricingEngines engines = new PricingEngines(
+                List.of(droolsEngine, new NativePricingEngine(droolsEngine)), DroolsPricingEngine.NAME);
+
+        // a zero max age makes every lookup a miss, so these services always evaluate the rules
+        droolsPricingService = new PricingService(discountRuleEvaluator, promotionRepository,
+                engines, promotionIndex, new CartPricingCache(1, Duration.ZERO));
+        cachedPricingService = new PricingService(discountRuleEvaluator, promotionRepository,
+                engines, promotionIndex, new CartPricingCache(1_000, Duration.ofMinutes(5)));
+
+        // an engine that always fails forces the DiscountRule fallback
+        PricingEngine failingEngine = BenchmarkFixtures.stub(PricingEngine.class);
+        when(failingEngine.getName()).thenReturn("failing");
+        doThrow(new IllegalStateException("benchmark: force manual rules")).when(failingEngine).applyDiscounts(any(), any());
+        manualPricingService = new PricingService(discountRuleEvaluator, promotionRepository,
+                new PricingEngines(List.of(failingEngine), "failing"), promotionIndex, new CartPricingCache(1, Duration.ZERO));
+
+        cart = BenchmarkFixtures.cart(cartLines);
+        products = new ArrayList<>();
+        cart.getItems().forEach(item -> products.add(item.getProduct()));
+        listings = new ArrayList<>();
+        for (Product product : products) {
+            ProductDto listing = new ProductDto();
+            listing.setId(product.getId());
+            listing.setCategory(product.getCategory());
+            listing.setBrand(product.getBrand());
+            listing.setPrice(product.getPrice());
+            listings.add(listing);
+        }
+    }
+
+    @Benchmark
+    public PriceCalculationResult cartPricingDrools() {
+        return droolsPricingService.calculateCartPricing(cart);
+    }
+
+    // same work from every available core against the one shared session setup; compare its
+    // throughput with cartPricingDrools to see how rule evaluation scales with threads
+    @Benchmark
+    @Threads(Threads.MAX)
+    public PriceCalculationResult cartPricingDroolsAllThreads() {
+        return droolsPricingService.calculateCartPricing(cart);
+    }
+
+    @Benchmark
+    public PriceCalculationResult cartPricingNative() {
+        return droolsPricingService.calculateCartPricing(cart, null, NativePricingEngine.NAME);
+    }
+
+    @Benchmark
+    public PriceCalculationResult cartPricingDiscountRules() {
+        return manualPricingService.calculateCartPricing(cart);
+    }
+
+    @Benchmark
+    public PriceCalculationResult cartPricingCached() {
+        return cachedPricingService.calculateCartPricing(cart);
+    }
+
+    @Benchmark
+    public BigDecimal productPrice() {
+        return droolsPricingService.calculateProductPrice(products.get(0));
+    }
+
+    @Benchmark
+    public Object productPricesBatch() {
+        return droolsPricingService.calculateListingPrices(listings);
+    }
+}
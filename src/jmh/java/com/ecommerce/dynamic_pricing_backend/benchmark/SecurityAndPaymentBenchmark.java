@@ -0,0 +1,113 @@
+package com.ecommerce.dynamic_pricing_backend.benchmark;
+
+import com.ecommerce.dynamic_pricing_backend.config.JwtConfig;
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import com.ecommerce.dynamic_pricing_backend.security.JwtAuthenticationFilter;
+import com.ecommerce.dynamic_pricing_backend.security.JwtUtils;
+import com.ecommerce.dynamic_pricing_backend.security.TokenVersionService;
+import com.ecommerce.dynamic_pricing_backend.security.VerifiedTokenCache;
+import com.ecommerce.dynamic_pricing_backend.service.PaymentService;
+import com.ecommerce.dynamic_pricing_backend.service.UserService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityAndPaymentBenchmark {
+    private JwtUtils jwtUtils;
+    private String token;
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private MockHttpServletRequest authenticatedRequest;
+    private PaymentService paymentService;
+    private Map<String, String> payhereNotification;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setJwtSecret("4FlfKplyMPYVocYoPLlOFaeyQa3/m+cyDqDMKg/k0qE=");
+        jwtConfig.setJwtExpiration(86_400_000);
+        jwtUtils = new JwtUtils(jwtConfig);
+        token = jwtUtils.generateToken(BenchmarkFixtures.user());
+
+        // the filter in stateless mode, with the verified-token cache disabled and enabled
+        jwtConfig.setJwtStatelessPrincipal(true);
+        TokenVersionService tokenVersionService = BenchmarkFixtures.stub(TokenVersionService.class);
+        when(tokenVersionService.currentVersion(1L)).thenReturn(0L);
+        uncachedFilter = new JwtAuthenticationFilter(jwtUtils, BenchmarkFixtures.stub(UserDetailsService.class),
+                tokenVersionService, jwtConfig, new VerifiedTokenCache(0, Duration.ofMinutes(10)));
+        cachedFilter = new JwtAuthenticationFilter(jwtUtils, BenchmarkFixtures.stub(UserDetailsService.class),
+                tokenVersionService, jwtConfig, new VerifiedTokenCache(10_000, Duration.ofMinutes(10)));
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/cart");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + token);
+
+        paymentService = new PaymentService(BenchmarkFixtures.stub(UserService.class));
+        ReflectionTestUtils.setField(paymentService, "merchantId", "1231720");
+        ReflectionTestUtils.setField(paymentService, "merchantSecret", "benchmark-secret");
+
+        payhereNotification = new HashMap<>();
+        payhereNotification.put("order_id", "ORD-20260101120000-42");
+        payhereNotification.put("payhere_amount", "1234.50");
+        payhereNotification.put("payhere_currency", "LKR");
+        payhereNotification.put("md5sig", "00000000000000000000000000000000");
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String validateAndExtractUsername() {
+        // the filter's former pattern: verify, then parse again for the subject
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.extractUsername(token) : null;
+    }
+
+    @Benchmark
+    public User statelessPrincipal() {
+        // the filter's stateless mode: one parse, principal built from the claims
+        Claims claims = jwtUtils.parseToken(token);
+        return claims != null ? jwtUtils.principalFromClaims(claims) : null;
+    }
+
+    @Benchmark
+    public Object filterUncached() throws Exception {
+        return authenticate(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    @Benchmark
+    public boolean payhereHashVerification() {
+        return paymentService.verifyMd5Signature(payhereNotification);
+    }
+
+    private Object authenticate(JwtAuthenticationFilter filter) throws Exception {
+        try {
+            filter.doFilter(authenticatedRequest, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
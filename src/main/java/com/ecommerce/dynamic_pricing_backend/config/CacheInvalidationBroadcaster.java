@@ -0,0 +1,50 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Publishes L1 invalidations on a Redis channel. Messages carry the sender's node id so a node
+ * ignores its own invalidations, which it has already applied locally.
+ */
+@Slf4j
+class CacheInvalidationBroadcaster {
+    static final String EVICT = "evict";
+    static final String CLEAR = "clear";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    CacheInvalidationBroadcaster(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    String getChannel() {
+        return channel;
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(EVICT, cacheName, key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(CLEAR, cacheName, "");
+    }
+
+    private void publish(String operation, String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "\n" + operation + "\n" + cacheName + "\n" + key);
+        } catch (Exception e) {
+            // other nodes converge when their L1 entries expire
+            log.warn("Failed to broadcast {} of cache '{}': {}", operation, cacheName, e.getMessage());
+        }
+    }
+}
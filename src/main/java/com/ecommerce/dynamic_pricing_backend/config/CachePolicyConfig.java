@@ -0,0 +1,68 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-cache policies under {@code app.cache.caches.<name>}. Any setting a cache leaves out, and every
+ * cache without an entry, falls back to {@code app.cache.defaults}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+public class CachePolicyConfig {
+    private String invalidationChannel = "cache-invalidation";
+    private CachePolicy defaults = new CachePolicy(Duration.ofMinutes(30), Duration.ofSeconds(60), 10_000, "jdk", 1024,
+            Duration.ofSeconds(30), Duration.ZERO);
+    private Map<String, CachePolicy> caches = new HashMap<>();
+
+    /**
+     * Returns the effective policy of a cache. Names are matched ignoring case and dashes, so
+     * {@code product-prices} in YAML configures the {@code productPrices} cache.
+     */
+    public CachePolicy policyFor(String cacheName) {
+        CachePolicy policy = null;
+        for (Map.Entry<String, CachePolicy> entry : caches.entrySet()) {
+            if (normalize(entry.getKey()).equals(normalize(cacheName))) {
+                policy = entry.getValue();
+                break;
+            }
+        }
+        if (policy == null) {
+            return defaults;
+        }
+        return new CachePolicy(
+                policy.getTtl() != null ? policy.getTtl() : defaults.getTtl(),
+                policy.getLocalTtl() != null ? policy.getLocalTtl() : defaults.getLocalTtl(),
+                policy.getMaxEntries() != null ? policy.getMaxEntries() : defaults.getMaxEntries(),
+                policy.getSerializer() != null ? policy.getSerializer() : defaults.getSerializer(),
+                policy.getCompressionThreshold() != null ? policy.getCompressionThreshold() : defaults.getCompressionThreshold(),
+                policy.getStaleWindow() != null ? policy.getStaleWindow() : defaults.getStaleWindow(),
+                policy.getLoadLease() != null ? policy.getLoadLease() : defaults.getLoadLease());
+    }
+
+    private static String normalize(String name) {
+        return name.replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachePolicy {
+        private Duration ttl; // Redis (L2) TTL; for productPrices the upper bound of the price validity TTL
+        private Duration localTtl; // in-process (L1) TTL, bounds staleness after a missed invalidation
+        private Integer maxEntries; // in-process (L1) size limit
+        private String serializer; // Redis value serializer: binary, jdk or json
+        private Integer compressionThreshold; // binary values larger than this many bytes are deflated, 0 disables
+        private Duration staleWindow; // how long past its local TTL an entry is served while it reloads
+        private Duration loadLease; // Redis lease that lets one node at a time load a missing entry, 0 disables
+    }
+}
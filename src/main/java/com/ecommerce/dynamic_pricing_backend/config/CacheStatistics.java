@@ -0,0 +1,106 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a single two-tier cache. A load is any read that had to go past the in-process tier,
+ * to Redis or to the cached method itself.
+ */
+public class CacheStatistics {
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LocalCache local;
+
+    CacheStatistics(LocalCache local) {
+        this.local = local;
+    }
+
+    void recordLocalHit() {
+        localHits.increment();
+    }
+
+    void recordRemoteHit() {
+        remoteHits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordLoad(long nanos) {
+        loads.increment();
+        loadTimeNanos.add(nanos);
+    }
+
+    void recordCoalescedLoad() {
+        coalescedLoads.increment();
+    }
+
+    void recordRefresh() {
+        refreshes.increment();
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getHits() {
+        return localHits.sum() + remoteHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long hits = getHits();
+        long total = hits + misses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // explicit evictions and clears, including those received from other nodes
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // in-process entries dropped to stay within the size limit
+    public long getSizeEvictions() {
+        return local.getSizeEvictions();
+    }
+
+    public int getLocalSize() {
+        return local.size();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return loadTimeNanos.sum();
+    }
+
+    // callers that waited for a load already in progress on this node instead of loading themselves
+    public long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    // stale entries served while being reloaded in the background
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+}
@@ -0,0 +1,289 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPageDto;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPriceQuote;
+import com.ecommerce.dynamic_pricing_backend.dto.PromotionDto;
+import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary cache value serializer. The cached DTOs are written field by field in the tagged
+ * format of {@link CompactOutput}, without class names or field names; other values fall back to
+ * JDK serialization. Values larger than the compression threshold are deflated when that makes them
+ * smaller. Values written by the plain JDK serializer are still read, so switching a cache to this
+ * serializer needs no flush.
+ * <p>
+ * Type ids and field numbers are part of the stored format: never reuse or renumber them.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+    private static final byte PLAIN = 0x01;
+    private static final byte DEFLATED = 0x02;
+    private static final byte JDK_STREAM_MAGIC = (byte) 0xAC;
+
+    private static final int TYPE_JDK = 0;
+    private static final int TYPE_PRODUCT = 1;
+    private static final int TYPE_PROMOTION = 2;
+    private static final int TYPE_PRICE_QUOTE = 3;
+    private static final int TYPE_LIST = 4;
+    private static final int TYPE_NULL = 5;
+    private static final int TYPE_PRODUCT_PAGE = 6;
+
+    private final int compressionThreshold;
+    private final RedisSerializer<Object> jdk = RedisSerializer.java();
+
+    public CompactCacheSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        CompactOutput out = new CompactOutput(256);
+        out.writeRaw(new byte[]{PLAIN}, 0, 1);
+        writeValue(value, out);
+
+        if (compressionThreshold > 0 && out.size() > compressionThreshold) {
+            byte[] deflated = deflate(out.buffer(), 1, out.size() - 1);
+            if (deflated != null) {
+                return deflated;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        switch (bytes[0]) {
+            case PLAIN:
+                return readValue(new CompactInput(bytes, 1, bytes.length));
+            case DEFLATED:
+                return readValue(inflate(bytes));
+            case JDK_STREAM_MAGIC:
+                // written before the cache switched to this serializer
+                return jdk.deserialize(bytes);
+            default:
+                throw new SerializationException("Unknown cache value format " + bytes[0]);
+        }
+    }
+
+    private void writeValue(Object value, CompactOutput out) {
+        if (value == null) {
+            out.writeVarint(TYPE_NULL);
+        } else if (value instanceof ProductDto product) {
+            out.writeVarint(TYPE_PRODUCT);
+            writeProduct(product, out);
+        } else if (value instanceof PromotionDto promotion) {
+            out.writeVarint(TYPE_PROMOTION);
+            writePromotion(promotion, out);
+        } else if (value instanceof ProductPriceQuote quote) {
+            out.writeVarint(TYPE_PRICE_QUOTE);
+            out.writeDecimal(1, quote.getDiscountedPrice());
+            out.writeDateTime(2, quote.getValidUntil());
+            out.endObject();
+        } else if (value instanceof ProductPageDto page) {
+            out.writeVarint(TYPE_PRODUCT_PAGE);
+            out.writeVarint(page.getTotalElements());
+            writeValue(page.getContent(), out);
+        } else if (value instanceof List<?> list) {
+            out.writeVarint(TYPE_LIST);
+            out.writeVarint(list.size());
+            for (Object element : list) {
+                writeValue(element, out);
+            }
+        } else {
+            byte[] serialized = jdk.serialize(value);
+            out.writeVarint(TYPE_JDK);
+            out.writeVarint(serialized.length);
+            out.writeRaw(serialized, 0, serialized.length);
+        }
+    }
+
+    private Object readValue(CompactInput in) {
+        int type = (int) in.readVarint();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_PRODUCT:
+                return readProduct(in);
+            case TYPE_PROMOTION:
+                return readPromotion(in);
+            case TYPE_PRICE_QUOTE:
+                return readPriceQuote(in);
+            case TYPE_LIST:
+                int size = Math.toIntExact(in.readVarint());
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case TYPE_PRODUCT_PAGE:
+                long totalElements = in.readVarint();
+                @SuppressWarnings("unchecked")
+                List<ProductDto> content = (List<ProductDto>) readValue(in);
+                return new ProductPageDto(content, totalElements);
+            case TYPE_JDK:
+                CompactInput serialized = in.readNested();
+                return jdk.deserialize(serialized.remaining());
+            default:
+                throw new SerializationException("Unknown cached type id " + type);
+        }
+    }
+
+    private void writeProduct(ProductDto product, CompactOutput out) {
+        out.writeLong(1, product.getId());
+        out.writeString(2, product.getName());
+        out.writeString(3, product.getDescription());
+        out.writeDecimal(4, product.getPrice());
+        out.writeDecimal(5, product.getDiscountedPrice());
+        out.writeInt(6, product.getStockQuantity());
+        out.writeString(7, product.getCategory());
+        out.writeString(8, product.getBrand());
+        out.writeString(9, product.getImageUrl());
+        out.writeBoolean(10, product.getActive());
+        out.writeDateTime(11, product.getCreatedAt());
+        out.writeDateTime(12, product.getUpdatedAt());
+        out.endObject();
+    }
+
+    private ProductDto readProduct(CompactInput in) {
+        ProductDto product = new ProductDto();
+        for (int field = in.readField(); field != 0; field = in.readField()) {
+            switch (field) {
+                case 1 -> product.setId(in.readLong());
+                case 2 -> product.setName(in.readString());
+                case 3 -> product.setDescription(in.readString());
+                case 4 -> product.setPrice(in.readDecimal());
+                case 5 -> product.setDiscountedPrice(in.readDecimal());
+                case 6 -> product.setStockQuantity(in.readInt());
+                case 7 -> product.setCategory(in.readString());
+                case 8 -> product.setBrand(in.readString());
+                case 9 -> product.setImageUrl(in.readString());
+                case 10 -> product.setActive(in.readBoolean());
+                case 11 -> product.setCreatedAt(in.readDateTime());
+                case 12 -> product.setUpdatedAt(in.readDateTime());
+                default -> in.skipField();
+            }
+        }
+        return product;
+    }
+
+    private void writePromotion(PromotionDto promotion, CompactOutput out) {
+        out.writeLong(1, promotion.getId());
+        out.writeString(2, promotion.getName());
+        out.writeString(3, promotion.getDescription());
+        out.writeString(4, promotion.getCode());
+        out.writeEnum(5, promotion.getDiscountType());
+        out.writeDecimal(6, promotion.getDiscountValue());
+        out.writeDecimal(7, promotion.getMinOrderAmount());
+        out.writeDecimal(8, promotion.getMaxDiscountAmount());
+        out.writeInt(9, promotion.getUsageLimit());
+        out.writeInt(10, promotion.getUsedCount());
+        out.writeDateTime(11, promotion.getStartDate());
+        out.writeDateTime(12, promotion.getEndDate());
+        out.writeBoolean(13, promotion.getActive());
+        out.writeString(14, promotion.getCategory());
+        out.writeString(15, promotion.getBrand());
+        out.writeDateTime(16, promotion.getCreatedAt());
+        out.writeDateTime(17, promotion.getUpdatedAt());
+        out.endObject();
+    }
+
+    private PromotionDto readPromotion(CompactInput in) {
+        PromotionDto promotion = new PromotionDto();
+        for (int field = in.readField(); field != 0; field = in.readField()) {
+            switch (field) {
+                case 1 -> promotion.setId(in.readLong());
+                case 2 -> promotion.setName(in.readString());
+                case 3 -> promotion.setDescription(in.readString());
+                case 4 -> promotion.setCode(in.readString());
+                case 5 -> promotion.setDiscountType(in.readEnum(Promotion.DiscountType.class));
+                case 6 -> promotion.setDiscountValue(in.readDecimal());
+                case 7 -> promotion.setMinOrderAmount(in.readDecimal());
+                case 8 -> promotion.setMaxDiscountAmount(in.readDecimal());
+                case 9 -> promotion.setUsageLimit(in.readInt());
+                case 10 -> promotion.setUsedCount(in.readInt());
+                case 11 -> promotion.setStartDate(in.readDateTime());
+                case 12 -> promotion.setEndDate(in.readDateTime());
+                case 13 -> promotion.setActive(in.readBoolean());
+                case 14 -> promotion.setCategory(in.readString());
+                case 15 -> promotion.setBrand(in.readString());
+                case 16 -> promotion.setCreatedAt(in.readDateTime());
+                case 17 -> promotion.setUpdatedAt(in.readDateTime());
+                default -> in.skipField();
+            }
+        }
+        return promotion;
+    }
+
+    private ProductPriceQuote readPriceQuote(CompactInput in) {
+        ProductPriceQuote quote = new ProductPriceQuote();
+        for (int field = in.readField(); field != 0; field = in.readField()) {
+            switch (field) {
+                case 1 -> quote.setDiscountedPrice(in.readDecimal());
+                case 2 -> quote.setValidUntil(in.readDateTime());
+                default -> in.skipField();
+            }
+        }
+        return quote;
+    }
+
+    // returns the deflated value, or null if deflating does not make it smaller
+    private byte[] deflate(byte[] bytes, int offset, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes, offset, length);
+            deflater.finish();
+
+            CompactOutput out = new CompactOutput(length / 2);
+            out.writeRaw(new byte[]{DEFLATED}, 0, 1);
+            out.writeVarint(length);
+            byte[] chunk = new byte[Math.min(length, 8192)];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.writeRaw(chunk, 0, written);
+                if (out.size() >= length) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private CompactInput inflate(byte[] bytes) {
+        CompactInput header = new CompactInput(bytes, 1, bytes.length);
+        int length = Math.toIntExact(header.readVarint());
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, header.position(), bytes.length - header.position());
+            byte[] inflated = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(inflated, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new SerializationException("Truncated compressed cache value");
+            }
+            return new CompactInput(inflated, 0, length);
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
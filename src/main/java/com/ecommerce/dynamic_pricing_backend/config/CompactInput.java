@@ -0,0 +1,133 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Reads the tagged-field format written by {@link CompactOutput}.
+ */
+class CompactInput {
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+    private int wireType;
+
+    CompactInput(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the number of the next field of the current object, or 0 at its end.
+     */
+    int readField() {
+        long key = readVarint();
+        wireType = (int) (key & 0x7);
+        return (int) (key >>> 3);
+    }
+
+    // skips the value of a field this reader does not know
+    void skipField() {
+        if (wireType == CompactOutput.VARINT) {
+            readVarint();
+        } else if (wireType == CompactOutput.LENGTH_DELIMITED) {
+            int length = readLength();
+            position += length;
+        } else {
+            throw new SerializationException("Unsupported wire type " + wireType);
+        }
+    }
+
+    long readLong() {
+        return zigZagDecode(readVarint());
+    }
+
+    int readInt() {
+        return Math.toIntExact(readLong());
+    }
+
+    boolean readBoolean() {
+        return readVarint() != 0;
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null; // a constant this node does not know yet
+        }
+    }
+
+    BigDecimal readDecimal() {
+        int end = readLength() + position;
+        int scale = (int) zigZagDecode(readVarint());
+        BigInteger unscaled = new BigInteger(Arrays.copyOfRange(buffer, position, end));
+        position = end;
+        return new BigDecimal(unscaled, scale);
+    }
+
+    LocalDateTime readDateTime() {
+        int end = readLength() + position;
+        long seconds = zigZagDecode(readVarint());
+        int nanos = (int) readVarint();
+        position = end;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    CompactInput readNested() {
+        int length = readLength();
+        CompactInput nested = new CompactInput(buffer, position, position + length);
+        position += length;
+        return nested;
+    }
+
+    int position() {
+        return position;
+    }
+
+    byte[] remaining() {
+        return Arrays.copyOfRange(buffer, position, limit);
+    }
+
+    long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new SerializationException("Truncated cache value");
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in cache value");
+    }
+
+    private int readLength() {
+        int length = Math.toIntExact(readVarint());
+        if (length < 0 || position + length > limit) {
+            throw new SerializationException("Truncated cache value");
+        }
+        return length;
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
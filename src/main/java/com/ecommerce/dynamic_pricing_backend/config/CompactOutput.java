@@ -0,0 +1,138 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Writes the tagged-field format read by {@link CompactInput}: every field is a varint key
+ * ({@code fieldNumber << 3 | wireType}) followed by its value, null fields are omitted and an
+ * object ends with a zero key. Readers skip field numbers they do not know, so fields can be added
+ * or removed without breaking older or newer nodes, as long as a field number is never reused.
+ */
+class CompactOutput {
+    static final int VARINT = 0;
+    static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    CompactOutput(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void writeLong(int field, Long value) {
+        if (value != null) {
+            writeKey(field, VARINT);
+            writeVarint(zigZag(value));
+        }
+    }
+
+    void writeInt(int field, Integer value) {
+        if (value != null) {
+            writeLong(field, value.longValue());
+        }
+    }
+
+    void writeBoolean(int field, Boolean value) {
+        if (value != null) {
+            writeKey(field, VARINT);
+            writeVarint(value ? 1 : 0);
+        }
+    }
+
+    void writeString(int field, String value) {
+        if (value != null) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    void writeEnum(int field, Enum<?> value) {
+        // by name, so reordering constants does not change the meaning of stored values
+        if (value != null) {
+            writeString(field, value.name());
+        }
+    }
+
+    void writeDecimal(int field, BigDecimal value) {
+        if (value != null) {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeKey(field, LENGTH_DELIMITED);
+            writeVarint(varintSize(zigZag(value.scale())) + unscaled.length);
+            writeVarint(zigZag(value.scale()));
+            writeRaw(unscaled, 0, unscaled.length);
+        }
+    }
+
+    void writeDateTime(int field, LocalDateTime value) {
+        if (value != null) {
+            long seconds = zigZag(value.toEpochSecond(ZoneOffset.UTC));
+            writeKey(field, LENGTH_DELIMITED);
+            writeVarint(varintSize(seconds) + varintSize(value.getNano()));
+            writeVarint(seconds);
+            writeVarint(value.getNano());
+        }
+    }
+
+    void writeBytes(int field, byte[] value) {
+        writeKey(field, LENGTH_DELIMITED);
+        writeVarint(value.length);
+        writeRaw(value, 0, value.length);
+    }
+
+    void endObject() {
+        writeVarint(0);
+    }
+
+    void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    void writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void writeKey(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int varintSize(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            bytes++;
+            value >>>= 7;
+        }
+        return bytes;
+    }
+}
@@ -5,22 +5,25 @@ import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.KieModule;
 import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
 import org.kie.internal.io.ResourceFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 public class DroolsConfig {
     private static final String RULES_PATH = "rules/";
+    public static final List<String> RULE_FILES = List.of(RULES_PATH + "discount-rules.drl", RULES_PATH + "promotion-rules.drl");
 
     @Bean
     public KieContainer kieContainer(){
         KieServices kieServices = KieServices.Factory.get();
         KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
 
-        kieFileSystem.write(ResourceFactory.newClassPathResource("rules/discount-rules.drl"));
-        kieFileSystem.write(ResourceFactory.newClassPathResource("rules/promotion-rules.drl"));
+        for (String ruleFile : RULE_FILES) {
+            kieFileSystem.write(ResourceFactory.newClassPathResource(ruleFile));
+        }
 
         KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
         kieBuilder.buildAll();
@@ -28,9 +31,4 @@ public class DroolsConfig {
         KieModule kieModule = kieBuilder.getKieModule();
         return kieServices.newKieContainer(kieModule.getReleaseId());
     }
-
-    @Bean
-    public KieSession kieSession(){
-        return kieContainer().newKieSession();
-    }
 }
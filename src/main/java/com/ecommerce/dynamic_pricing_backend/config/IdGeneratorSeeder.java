@@ -0,0 +1,45 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import com.ecommerce.dynamic_pricing_backend.entity.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves each table-backed id generator past the ids already in its table, which were assigned by
+ * IDENTITY columns before the switch. Runs once the schema is up to date and before any request is
+ * served; a generator that is already ahead is left alone.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdGeneratorSeeder {
+    // generator name, as in @TableGenerator#pkColumnValue, to the table it numbers
+    private static final Map<String, String> GENERATED_TABLES = Map.of(
+            "orders", "orders",
+            "order_items", "order_items",
+            "cart_items", "cart_items");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        GENERATED_TABLES.forEach((generator, table) -> {
+            // the pooled optimizer reads a stored value v as the block ending at v, so the first block
+            // must end a whole allocation past the largest id for none of its ids to be taken
+            jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE
+                            + " (" + IdGenerators.NAME_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ")"
+                            + " SELECT ?, COALESCE(MAX(id), 0) + ? FROM " + table
+                            + " ON DUPLICATE KEY UPDATE " + IdGenerators.VALUE_COLUMN
+                            + " = GREATEST(" + IdGenerators.VALUE_COLUMN + ", VALUES(" + IdGenerators.VALUE_COLUMN + "))",
+                    generator, IdGenerators.ALLOCATION_SIZE);
+            log.debug("Seeded id generator {} from table {}", generator, table);
+        });
+    }
+}
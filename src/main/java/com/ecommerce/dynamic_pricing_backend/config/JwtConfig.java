@@ -10,4 +10,6 @@ import org.springframework.context.annotation.Configuration;
 public class JwtConfig {
     private String jwtSecret;
     private int jwtExpiration;
+    // build the principal from the token's id/role claims instead of loading the user on every request
+    private boolean jwtStatelessPrincipal;
 }
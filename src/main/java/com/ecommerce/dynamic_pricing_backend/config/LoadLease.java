@@ -0,0 +1,65 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Short Redis lease that lets one node at a time load a missing cache entry. Nodes that do not get
+ * the lease wait for the holder to publish the value to Redis, and load it themselves if it has not
+ * appeared when the lease runs out. Redis errors never block a load.
+ */
+@Slf4j
+class LoadLease {
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId;
+
+    LoadLease(StringRedisTemplate redisTemplate, String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+    }
+
+    boolean tryAcquire(String leaseKey, Duration leaseTime) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, leaseTime));
+        } catch (Exception e) {
+            log.warn("Failed to acquire cache load lease {}: {}", leaseKey, e.getMessage());
+            return true;
+        }
+    }
+
+    void release(String leaseKey) {
+        try {
+            // the lease may have run out and been taken by another node; only drop our own
+            if (nodeId.equals(redisTemplate.opsForValue().get(leaseKey))) {
+                redisTemplate.delete(leaseKey);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to release cache load lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Polls until {@code lookup} returns a value or the lease time has passed, returning the value or {@code null}.
+     */
+    <T> T await(Duration leaseTime, Supplier<T> lookup) {
+        long deadline = System.nanoTime() + leaseTime.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            T value = lookup.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process map of cache entries with per-entry expiry. An entry is fresh until its refresh
+ * time and may still be served, stale, until it expires. Reads are lock-free; once the size limit is
+ * reached each insert evicts an expired entry if one is found among a small sample, otherwise the
+ * sampled entry closest to expiry.
+ */
+class LocalCache {
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongAdder sizeEvictions = new LongAdder();
+
+    LocalCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the entry, fresh or stale, or {@code null} if there is none or it has expired.
+     */
+    Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() < 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    void put(String key, Cache.ValueWrapper value, long freshNanos, long ttlNanos) {
+        if (ttlNanos <= 0 || maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            evictOne();
+        }
+        long now = System.nanoTime();
+        entries.put(key, new Entry(value, now + Math.min(freshNanos, ttlNanos), now + ttlNanos));
+    }
+
+    void evict(String key) {
+        entries.remove(key);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getSizeEvictions() {
+        return sizeEvictions.sum();
+    }
+
+    private void evictOne() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        Map.Entry<String, Entry> victim = null;
+        int scanned = 0;
+        while (iterator.hasNext() && scanned++ < EVICTION_SAMPLE) {
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (candidate.getValue().expiresAt - now < 0) {
+                victim = candidate;
+                break;
+            }
+            if (victim == null || candidate.getValue().expiresAt - victim.getValue().expiresAt < 0) {
+                victim = candidate;
+            }
+        }
+        if (victim != null && entries.remove(victim.getKey(), victim.getValue())) {
+            sizeEvictions.increment();
+        }
+    }
+
+    static final class Entry {
+        private final Cache.ValueWrapper value;
+        private final long refreshAt;
+        private final long expiresAt;
+
+        private Entry(Cache.ValueWrapper value, long refreshAt, long expiresAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        Cache.ValueWrapper value() {
+            return value;
+        }
+
+        boolean isStale() {
+            return refreshAt - System.nanoTime() < 0;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPriceQuote;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Expires a cached {@link ProductPriceQuote} exactly when the next promotion affecting the product
+ * starts or ends, and never later than the configured maximum TTL.
+ */
+public class PriceValidityTtlFunction implements RedisCacheWriter.TtlFunction {
+    private static final Duration MIN_TTL = Duration.ofMillis(1);
+
+    private final Duration maxTtl;
+
+    public PriceValidityTtlFunction(Duration maxTtl) {
+        this.maxTtl = maxTtl;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (!(value instanceof ProductPriceQuote quote) || quote.getValidUntil() == null) {
+            return maxTtl;
+        }
+
+        Duration untilBoundary = Duration.between(LocalDateTime.now(), quote.getValidUntil());
+        if (untilBoundary.compareTo(MIN_TTL) < 0) {
+            // a zero or negative TTL would make the entry persistent
+            return MIN_TTL;
+        }
+        return untilBoundary.compareTo(maxTtl) < 0 ? untilBoundary : maxTtl;
+    }
+}
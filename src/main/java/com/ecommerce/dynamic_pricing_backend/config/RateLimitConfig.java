@@ -0,0 +1,33 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket limits per endpoint group under {@code app.rate-limit.groups.<name>}. A request is
+ * counted against the first group, in declaration order, whose paths and methods match it.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitConfig {
+    private boolean enabled = true;
+    // share buckets between nodes through Redis; falls back to the local buckets if Redis is unavailable
+    private boolean redisSync = false;
+    private int stripes = 64;
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+        private List<String> paths = new ArrayList<>(); // Ant-style patterns
+        private List<String> methods = new ArrayList<>(); // empty matches every method
+        private int capacity; // burst size
+        private double refillPerSecond;
+    }
+}
@@ -1,16 +1,24 @@
 package com.ecommerce.dynamic_pricing_backend.config;
 
-import org.springframework.cache.CacheManager;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
@@ -33,15 +41,61 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager
-                .RedisCacheManagerBuilder
-                .fromConnectionFactory(connectionFactory)
-                .cacheDefaults(
-                        org.springframework.data.redis.cache.RedisCacheConfiguration.defaultCacheConfig()
-                                .entryTtl(Duration.ofMinutes(30)) // Default TTL
-                );
-
-        return builder.build();
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory, CachePolicyConfig cachePolicies) {
+        // product prices expire at the next promotion boundary, with the configured TTL as the upper bound
+        PriceValidityTtlFunction priceValidityTtl = new PriceValidityTtlFunction(cachePolicies.policyFor("productPrices").getTtl());
+
+        // each cache, including ones added later, gets the Redis configuration of its own policy
+        RedisCacheManager redisCacheManager = new RedisCacheManager(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                redisCacheConfiguration(cachePolicies.getDefaults())) {
+            @Override
+            protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+                RedisCacheConfiguration configuration = redisCacheConfiguration(cachePolicies.policyFor(name));
+                if ("productPrices".equals(name)) {
+                    configuration = configuration.entryTtl(priceValidityTtl);
+                }
+                return super.createRedisCache(name, configuration);
+            }
+        };
+        redisCacheManager.afterPropertiesSet();
+
+        // fail at startup rather than on first use when a configured policy is invalid
+        cachePolicies.getCaches().keySet().forEach(name -> redisCacheConfiguration(cachePolicies.policyFor(name)));
+
+        // a short local TTL bounds how long a node can serve an entry whose invalidation it missed
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        CacheInvalidationBroadcaster broadcaster = new CacheInvalidationBroadcaster(stringRedisTemplate, cachePolicies.getInvalidationChannel());
+        return new TwoTierCacheManager(redisCacheManager, broadcaster, new LoadLease(stringRedisTemplate, broadcaster.getNodeId()),
+                cachePolicies, Map.of("productPrices", priceValidityTtl));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoTierCacheManager cacheManager,
+                                                                            CachePolicyConfig cachePolicies) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cachePolicies.getInvalidationChannel()));
+        return container;
+    }
+
+    private RedisCacheConfiguration redisCacheConfiguration(CachePolicyConfig.CachePolicy policy) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(policy.getTtl())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer(policy)));
+    }
+
+    private RedisSerializer<Object> valueSerializer(CachePolicyConfig.CachePolicy policy) {
+        switch (policy.getSerializer()) {
+            case "binary":
+                return new CompactCacheSerializer(policy.getCompressionThreshold());
+            case "jdk":
+                return RedisSerializer.java();
+            case "json":
+                return new GenericJackson2JsonRedisSerializer()
+                        .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+            default:
+                throw new IllegalArgumentException("Unknown cache serializer: " + policy.getSerializer());
+        }
     }
 }
@@ -1,7 +1,10 @@
 package com.ecommerce.dynamic_pricing_backend.config;
 
+import com.ecommerce.dynamic_pricing_backend.security.BoundedPasswordEncoder;
 import com.ecommerce.dynamic_pricing_backend.security.JwtAuthenticationEntryPoint;
 import com.ecommerce.dynamic_pricing_backend.security.JwtAuthenticationFilter;
+import com.ecommerce.dynamic_pricing_backend.security.PasswordHashingExecutor;
+import com.ecommerce.dynamic_pricing_backend.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,10 +32,12 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
     }
 
     @Bean
@@ -64,6 +69,8 @@ public class SecurityConfig {
                 )
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // after the JWT filter, so authenticated clients are limited by user id rather than IP
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
                 .build();
     }
 
@@ -0,0 +1,258 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A cache backed by a bounded in-process L1 in front of a shared Redis L2. Reads try L1 first and
+ * populate it from L2; writes and evictions go to both tiers and are broadcast so other nodes drop
+ * their L1 copy. L1 hands out the same instance to every caller, so cached values must be treated
+ * as read-only.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} ({@code @Cacheable(sync = true)}) are coalesced: one
+ * caller per key and node loads while the others wait for its result, and with a load lease only one
+ * node loads at a time. An L1 entry past its local TTL is still served for the stale window while
+ * it is reloaded in the background.
+ */
+@Slf4j
+class TwoTierCache implements Cache {
+    private final Cache remote;
+    private final LocalCache local;
+    private final RedisCacheWriter.TtlFunction localTtl;
+    private final CachePolicyConfig.CachePolicy policy;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final LoadLease loadLease;
+    private final Executor refreshExecutor;
+    private final CacheStatistics statistics;
+    private final ConcurrentHashMap<String, CompletableFuture<ValueWrapper>> inFlight = new ConcurrentHashMap<>();
+
+    TwoTierCache(Cache remote, LocalCache local, RedisCacheWriter.TtlFunction localTtl, CachePolicyConfig.CachePolicy policy,
+                 CacheInvalidationBroadcaster broadcaster, LoadLease loadLease, Executor refreshExecutor) {
+        this.remote = remote;
+        this.local = local;
+        this.localTtl = localTtl;
+        this.policy = policy;
+        this.broadcaster = broadcaster;
+        this.loadLease = loadLease;
+        this.refreshExecutor = refreshExecutor;
+        this.statistics = new CacheStatistics(local);
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        LocalCache.Entry entry = local.get(localKey);
+        // without a loader a stale entry cannot be refreshed, so it is re-read from Redis instead
+        if (entry != null && !entry.isStale()) {
+            statistics.recordLocalHit();
+            return entry.value();
+        }
+
+        long start = System.nanoTime();
+        ValueWrapper value = remote.get(key);
+        statistics.recordLoad(System.nanoTime() - start);
+        if (value != null) {
+            statistics.recordRemoteHit();
+            putLocal(localKey, key, value);
+        } else {
+            statistics.recordMiss();
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalCache.Entry entry = local.get(localKey);
+        if (entry != null) {
+            statistics.recordLocalHit();
+            if (entry.isStale()) {
+                refreshInBackground(key, localKey, valueLoader);
+            }
+            return (T) entry.value().get();
+        }
+
+        return (T) loadOnce(key, localKey, valueLoader).get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        putLocal(localKey, key, new SimpleValueWrapper(value));
+        broadcaster.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.evict(localKey);
+        statistics.recordEviction();
+        broadcaster.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.clear();
+        statistics.recordEviction();
+        broadcaster.publishClear(getName());
+    }
+
+    // called for invalidations received from other nodes
+    void evictLocal(String localKey) {
+        local.evict(localKey);
+        statistics.recordEviction();
+    }
+
+    void clearLocal() {
+        local.clear();
+        statistics.recordEviction();
+    }
+
+    CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    // the first caller for a key loads it, concurrent callers for the same key wait for that result
+    private ValueWrapper loadOnce(Object key, String localKey, Callable<?> valueLoader) {
+        CompletableFuture<ValueWrapper> load = new CompletableFuture<>();
+        CompletableFuture<ValueWrapper> existing = inFlight.putIfAbsent(localKey, load);
+        if (existing != null) {
+            statistics.recordCoalescedLoad();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+
+        try {
+            ValueWrapper value = load(key, localKey, valueLoader);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    private ValueWrapper load(Object key, String localKey, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        try {
+            ValueWrapper value = remote.get(key);
+            if (value != null) {
+                statistics.recordRemoteHit();
+                putLocal(localKey, key, value);
+                return value;
+            }
+
+            Duration leaseTime = policy.getLoadLease();
+            String leaseKey = "cache-lease:" + getName() + ":" + localKey;
+            boolean leased = false;
+            if (leaseTime != null && !leaseTime.isZero()) {
+                leased = loadLease.tryAcquire(leaseKey, leaseTime);
+                if (!leased) {
+                    // another node is loading: wait for it to publish the value
+                    value = loadLease.await(leaseTime, () -> remote.get(key));
+                    if (value != null) {
+                        statistics.recordRemoteHit();
+                        putLocal(localKey, key, value);
+                        return value;
+                    }
+                }
+            }
+
+            try {
+                statistics.recordMiss();
+                value = new SimpleValueWrapper(valueLoader.call());
+                remote.put(key, value.get());
+                putLocal(localKey, key, value);
+                return value;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } finally {
+                if (leased) {
+                    loadLease.release(leaseKey);
+                }
+            }
+        } finally {
+            statistics.recordLoad(System.nanoTime() - start);
+        }
+    }
+
+    private void refreshInBackground(Object key, String localKey, Callable<?> valueLoader) {
+        if (inFlight.containsKey(localKey)) {
+            return; // already being reloaded
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    statistics.recordRefresh();
+                    loadOnce(key, localKey, valueLoader);
+                } catch (RuntimeException e) {
+                    // callers keep getting the stale entry until it expires, then load it themselves
+                    log.warn("Background refresh of {}::{} failed: {}", getName(), localKey, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Refresh queue full, skipping background refresh of {}::{}", getName(), localKey);
+        }
+    }
+
+    private void putLocal(String localKey, Object key, ValueWrapper value) {
+        Duration fresh = policy.getLocalTtl();
+        Duration ttl = fresh.plus(policy.getStaleWindow() != null ? policy.getStaleWindow() : Duration.ZERO);
+        if (localTtl != null) {
+            // values with their own validity, such as price quotes, are never served past it
+            Duration validity = localTtl.getTimeToLive(key, value.get());
+            if (validity != null && validity.compareTo(ttl) < 0) {
+                ttl = validity;
+            }
+        }
+        local.put(localKey, value, fresh.toNanos(), ttl.toNanos());
+    }
+
+    // keys are compared by their string form, which is also how they travel in invalidation messages
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CacheManager} that puts a bounded in-process L1 in front of every cache of the Redis
+ * cache manager, and applies L1 invalidations broadcast by other nodes.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener, DisposableBean {
+    private static final int REFRESH_THREADS = 2;
+    private static final int REFRESH_QUEUE_SIZE = 1_000;
+
+    private final CacheManager remote;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final LoadLease loadLease;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final CachePolicyConfig policies;
+    private final Map<String, RedisCacheWriter.TtlFunction> localTtlFunctions;
+    private final ConcurrentHashMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    TwoTierCacheManager(CacheManager remote, CacheInvalidationBroadcaster broadcaster, LoadLease loadLease,
+                        CachePolicyConfig policies, Map<String, RedisCacheWriter.TtlFunction> localTtlFunctions) {
+        this.remote = remote;
+        this.broadcaster = broadcaster;
+        this.loadLease = loadLease;
+        // background refreshes are best effort: when the queue is full the stale entry is simply served longer
+        this.refreshExecutor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_SIZE), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.policies = policies;
+        this.localTtlFunctions = Map.copyOf(localTtlFunctions);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> {
+            CachePolicyConfig.CachePolicy policy = policies.policyFor(n);
+            return new TwoTierCache(remoteCache, new LocalCache(policy.getMaxEntries()),
+                    localTtlFunctions.get(n), policy, broadcaster, loadLease, refreshExecutor);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * Returns the counters of every cache used so far on this node, keyed by cache name.
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        Map<String, CacheStatistics> statistics = new TreeMap<>();
+        caches.forEach((name, cache) -> statistics.put(name, cache.getStatistics()));
+        return statistics;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length < 4 || parts[0].equals(broadcaster.getNodeId())) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return; // nothing cached locally yet
+        }
+        if (CacheInvalidationBroadcaster.CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else if (CacheInvalidationBroadcaster.EVICT.equals(parts[1])) {
+            cache.evictLocal(parts[3]);
+        } else {
+            log.warn("Ignoring unknown cache invalidation '{}'", parts[1]);
+        }
+    }
+}
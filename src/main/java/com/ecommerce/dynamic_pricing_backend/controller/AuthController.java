@@ -3,6 +3,7 @@ package com.ecommerce.dynamic_pricing_backend.controller;
 import com.ecommerce.dynamic_pricing_backend.dto.AuthResponse;
 import com.ecommerce.dynamic_pricing_backend.dto.LoginRequest;
 import com.ecommerce.dynamic_pricing_backend.dto.RegisterRequest;
+import com.ecommerce.dynamic_pricing_backend.security.PasswordHashingExecutor;
 import com.ecommerce.dynamic_pricing_backend.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,9 @@ public class AuthController {
             AuthResponse response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            if (PasswordHashingExecutor.BUSY_MESSAGE.equals(e.getMessage())) {
+                return busy();
+            }
             // You might want to create custom exceptions for better error handling
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(null);
@@ -37,6 +41,8 @@ public class AuthController {
         } catch (RuntimeException e) {
             if (e.getMessage().contains("Email is already in use")) {
                 return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+            } else if (PasswordHashingExecutor.BUSY_MESSAGE.equals(e.getMessage())) {
+                return busy();
             }
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         }
@@ -55,4 +61,9 @@ public class AuthController {
         // If the request reaches here, the token is valid
         return ResponseEntity.ok("Token is valid");
     }
-}
\ No newline at end of file
+
+    // password hashing is saturated: fail fast and let the client retry
+    private ResponseEntity<AuthResponse> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.dynamic_pricing_backend.controller;
+
+import com.ecommerce.dynamic_pricing_backend.dto.CacheStatsDto;
+import com.ecommerce.dynamic_pricing_backend.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/caches")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    // counters are per node and reset on restart
+    @GetMapping
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getCacheStats());
+    }
+}
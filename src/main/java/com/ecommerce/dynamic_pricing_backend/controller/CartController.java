@@ -1,9 +1,12 @@
 package com.ecommerce.dynamic_pricing_backend.controller;
 
 import com.ecommerce.dynamic_pricing_backend.dto.AddToCartRequest;
+import com.ecommerce.dynamic_pricing_backend.dto.CartBatchRequest;
 import com.ecommerce.dynamic_pricing_backend.dto.CartDto;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
 import com.ecommerce.dynamic_pricing_backend.entity.User;
 import com.ecommerce.dynamic_pricing_backend.service.CartService;
+import com.ecommerce.dynamic_pricing_backend.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/cart")
@@ -20,10 +24,16 @@ import org.springframework.web.bind.annotation.*;
 public class CartController {
 
     private final CartService cartService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
-    public ResponseEntity<CartDto> getCart(@AuthenticationPrincipal User user) {
+    public ResponseEntity<CartDto> getCart(@AuthenticationPrincipal User user, WebRequest webRequest) {
         try {
+            // an unchanged cart is answered before it is loaded and repriced
+            String etag = resourceVersions.cartTag(user.getId());
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             CartDto cart = cartService.getCartByUserId(user.getId());
             return ResponseEntity.ok(cart);
         } catch (RuntimeException e) {
@@ -31,6 +41,24 @@ public class CartController {
         }
     }
 
+    @GetMapping("/pricing")
+    public ResponseEntity<PriceCalculationResult> getCartPricing(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Pricing engine (drools or native), defaults to the deployment's engine")
+            @RequestParam(required = false) String engine) {
+        try {
+            PriceCalculationResult pricing = cartService.getCartPricing(user.getId(), engine);
+            return ResponseEntity.ok(pricing);
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } else if (e.getMessage().contains("Unknown pricing engine")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/items")
     public ResponseEntity<CartDto> addItemToCart(
             @AuthenticationPrincipal User user,
@@ -49,6 +77,25 @@ public class CartController {
         }
     }
 
+    @PostMapping("/items/batch")
+    public ResponseEntity<CartDto> applyCartOperations(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody CartBatchRequest request) {
+        try {
+            CartDto cart = cartService.applyCartOperations(user.getId(), request.getOperations());
+            return ResponseEntity.ok(cart);
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } else if (e.getMessage().contains("not available") ||
+                    e.getMessage().contains("Insufficient stock") ||
+                    e.getMessage().contains("Invalid cart operation")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/items/{productId}")
     public ResponseEntity<CartDto> updateItemQuantity(
             @AuthenticationPrincipal User user,
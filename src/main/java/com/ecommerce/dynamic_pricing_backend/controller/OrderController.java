@@ -38,6 +38,8 @@ public class OrderController {
             if (e.getMessage().contains("empty cart") ||
                     e.getMessage().contains("Cart not found")) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            } else if (e.getMessage().contains("Insufficient stock")) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
             } else if (e.getMessage().contains("payment")) {
                 return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED).build();
             }
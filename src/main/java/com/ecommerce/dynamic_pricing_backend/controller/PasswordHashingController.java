@@ -0,0 +1,31 @@
+package com.ecommerce.dynamic_pricing_backend.controller;
+
+import com.ecommerce.dynamic_pricing_backend.dto.PasswordHashingStatsDto;
+import com.ecommerce.dynamic_pricing_backend.security.PasswordHashingExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/password-hashing")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class PasswordHashingController {
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    // counters are per node and reset on restart
+    @GetMapping
+    public ResponseEntity<PasswordHashingStatsDto> getStats() {
+        PasswordHashingStatsDto stats = new PasswordHashingStatsDto();
+        stats.setQueueDepth(passwordHashingExecutor.getQueueDepth());
+        stats.setActiveThreads(passwordHashingExecutor.getActiveCount());
+        stats.setCompleted(passwordHashingExecutor.getCompleted());
+        stats.setRejected(passwordHashingExecutor.getRejected());
+        stats.setAverageHashTimeMillis(passwordHashingExecutor.getAverageHashTimeMillis());
+        return ResponseEntity.ok(stats);
+    }
+}
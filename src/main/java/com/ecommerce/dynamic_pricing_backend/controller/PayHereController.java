@@ -1,7 +1,6 @@
 package com.ecommerce.dynamic_pricing_backend.controller;
 
-import com.ecommerce.dynamic_pricing_backend.entity.Order;
-import com.ecommerce.dynamic_pricing_backend.repository.OrderRepository;
+import com.ecommerce.dynamic_pricing_backend.service.OrderService;
 import com.ecommerce.dynamic_pricing_backend.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,7 +16,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class PayHereController {
 
-    private final OrderRepository orderRepository;
+    private final OrderService orderService;
     private final PaymentService paymentService;
 
     @PostMapping("/notify")
@@ -31,16 +30,7 @@ public class PayHereController {
             return ResponseEntity.badRequest().body("Invalid signature");
         }
 
-        Order order = orderRepository.findByOrderNumber(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        order.setPaymentId(paymentId);
-        if ("2".equals(statusCode)) {
-            order.setStatus(Order.OrderStatus.CONFIRMED);
-        } else {
-            order.setStatus(Order.OrderStatus.FAILED);
-        }
-        orderRepository.save(order);
+        orderService.recordPaymentResult(orderId, paymentId, "2".equals(statusCode));
 
         return ResponseEntity.ok("OK");
     }
@@ -0,0 +1,70 @@
+package com.ecommerce.dynamic_pricing_backend.controller;
+
+import com.ecommerce.dynamic_pricing_backend.dto.CreatePricingRuleVersionRequest;
+import com.ecommerce.dynamic_pricing_backend.dto.PricingRuleVersionDto;
+import com.ecommerce.dynamic_pricing_backend.service.PricingRuleService;
+import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/pricing-rules")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class PricingRuleController {
+
+    private final PricingRuleService pricingRuleService;
+
+    @GetMapping
+    public ResponseEntity<List<PricingRuleVersionDto>> getAllVersions() {
+        return ResponseEntity.ok(pricingRuleService.getAllVersions());
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<Map<String, Long>> getActiveVersion() {
+        return ResponseEntity.ok(Map.of("version", pricingRuleService.getActiveRules().getVersion()));
+    }
+
+    @GetMapping("/{version}")
+    public ResponseEntity<PricingRuleVersionDto> getVersion(
+            @Parameter(description = "Rule version") @PathVariable Long version) {
+        try {
+            return ResponseEntity.ok(pricingRuleService.getVersion(version));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    // the new version is compiled in the background; poll its status to see whether it went live
+    @PostMapping
+    public ResponseEntity<PricingRuleVersionDto> createVersion(
+            @Valid @RequestBody CreatePricingRuleVersionRequest request) {
+        try {
+            PricingRuleVersionDto version = pricingRuleService.createVersion(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(version);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/{version}/activate")
+    public ResponseEntity<PricingRuleVersionDto> activateVersion(
+            @Parameter(description = "Rule version") @PathVariable Long version) {
+        try {
+            PricingRuleVersionDto ruleVersion = pricingRuleService.activateVersion(version);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ruleVersion);
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+}
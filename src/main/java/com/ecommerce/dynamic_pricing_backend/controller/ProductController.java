@@ -3,6 +3,7 @@ package com.ecommerce.dynamic_pricing_backend.controller;
 import com.ecommerce.dynamic_pricing_backend.dto.CreateProductRequest;
 import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
 import com.ecommerce.dynamic_pricing_backend.service.ProductService;
+import com.ecommerce.dynamic_pricing_backend.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -16,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,12 +27,20 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ResourceVersions resourceVersions;
 
     // ==== PUBLIC ENDPOINTS (No Authentication Required) ====
 
     @GetMapping
-    @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
-    public ResponseEntity<List<ProductDto>> getAllActiveProducts() {
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Products unchanged since the given ETag")
+    })
+    public ResponseEntity<List<ProductDto>> getAllActiveProducts(WebRequest webRequest) {
+        String etag = resourceVersions.catalogTag();
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<ProductDto> products = productService.findAllActiveProducts();
         return ResponseEntity.ok(products);
     }
@@ -4,6 +4,7 @@ import com.ecommerce.dynamic_pricing_backend.dto.CreatePromotionRequest;
 import com.ecommerce.dynamic_pricing_backend.dto.PromotionDto;
 import com.ecommerce.dynamic_pricing_backend.entity.User;
 import com.ecommerce.dynamic_pricing_backend.service.PromotionService;
+import com.ecommerce.dynamic_pricing_backend.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,11 +23,16 @@ import java.util.List;
 public class PromotionController {
 
     private final PromotionService promotionService;
+    private final ResourceVersions resourceVersions;
 
     // ==== PUBLIC ENDPOINTS (No Authentication Required) ====
 
     @GetMapping
-    public ResponseEntity<List<PromotionDto>> getAllActivePromotions() {
+    public ResponseEntity<List<PromotionDto>> getAllActivePromotions(WebRequest webRequest) {
+        String etag = resourceVersions.promotionsTag();
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PromotionDto> promotions = promotionService.getAllActivePromotions();
         return ResponseEntity.ok(promotions);
     }
@@ -0,0 +1,26 @@
+package com.ecommerce.dynamic_pricing_backend.controller;
+
+import com.ecommerce.dynamic_pricing_backend.security.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/rate-limits")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class RateLimitController {
+
+    private final RateLimiter rateLimiter;
+
+    // rejected requests per endpoint group, per node since restart
+    @GetMapping("/rejections")
+    public ResponseEntity<Map<String, Long>> getRejections() {
+        return ResponseEntity.ok(rateLimiter.getRejections());
+    }
+}
@@ -4,6 +4,7 @@ import com.ecommerce.dynamic_pricing_backend.dto.UpdateUserRequest;
 import com.ecommerce.dynamic_pricing_backend.dto.UserDto;
 import com.ecommerce.dynamic_pricing_backend.dto.UserStatsDto;
 import com.ecommerce.dynamic_pricing_backend.entity.User;
+import com.ecommerce.dynamic_pricing_backend.security.TokenVersionService;
 import com.ecommerce.dynamic_pricing_backend.service.UserService;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
@@ -23,14 +24,20 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final TokenVersionService tokenVersionService;
 
     // ==== CUSTOMER ENDPOINTS (Customer Authentication Required) ====
 
     @GetMapping("/profile")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     public ResponseEntity<UserDto> getCurrentUserProfile(@AuthenticationPrincipal User user) {
-        UserDto userDto = convertToDto(user);
-        return ResponseEntity.ok(userDto);
+        try {
+            // the principal may only carry the token's id and role claims, so the profile is loaded
+            UserDto userDto = convertToDto(userService.findById(user.getId()));
+            return ResponseEntity.ok(userDto);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
     }
 
     @PutMapping("/profile")
@@ -127,6 +134,18 @@ public class UserController {
         }
     }
 
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeUserTokens(
+            @Parameter(description = "User ID") @PathVariable Long id) {
+        try {
+            tokenVersionService.revokeTokens(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     // ==== HELPER METHODS ====
 
     private UserDto convertToDto(User user) {
@@ -0,0 +1,19 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsDto {
+    private String name;
+    private long hits;
+    private long localHits; // served from the in-process tier without a Redis round-trip
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private long sizeEvictions;
+    private long loads;
+    private double averageLoadTimeMicros;
+    private long coalescedLoads; // callers that waited for another caller's load of the same key
+    private long refreshes; // stale entries reloaded in the background
+    private long localSize;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CartBatchRequest {
+    @NotEmpty(message = "Operations are required")
+    @Size(max = 200, message = "At most 200 operations per request")
+    @Valid
+    private List<CartItemOperation> operations;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CartItemOperation {
+    @NotNull(message = "Action is required")
+    private Action action;
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    private Integer quantity; // required for ADD (at least 1) and UPDATE (0 or negative removes the item)
+
+    public enum Action {
+        ADD, UPDATE, REMOVE
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class CreatePricingRuleVersionRequest {
+    private String description;
+
+    @NotBlank(message = "DRL source is required")
+    private String drl;
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import lombok.Data;
+
+@Data
+public class PasswordHashingStatsDto {
+    private int queueDepth;
+    private int activeThreads;
+    private long completed;
+    private long rejected; // queue full or timed out, answered with 503
+    private double averageHashTimeMillis;
+}
@@ -16,4 +16,6 @@ public class PriceCalculationResult {
     private BigDecimal finalTotal;
     private List<String> appliedDiscounts;
     private String appliedPromotionCode;
+    private String pricingEngine; // engine that produced the automatic discounts
+    private Long ruleVersion; // pricing rule version that produced the automatic discounts, null if the rules engine was bypassed
 }
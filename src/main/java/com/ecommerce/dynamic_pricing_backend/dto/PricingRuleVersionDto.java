@@ -0,0 +1,17 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import com.ecommerce.dynamic_pricing_backend.entity.PricingRuleVersion;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PricingRuleVersionDto {
+    private Long version;
+    private String description;
+    private String drl;
+    private PricingRuleVersion.Status status;
+    private String compilationErrors;
+    private LocalDateTime createdAt;
+    private LocalDateTime activatedAt;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPageDto implements Serializable {
+    private List<ProductDto> content;
+    private long totalElements; // across all pages, so the page can be rebuilt with its original request
+}
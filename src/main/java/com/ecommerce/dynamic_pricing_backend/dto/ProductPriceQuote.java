@@ -0,0 +1,17 @@
+package com.ecommerce.dynamic_pricing_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPriceQuote implements Serializable {
+    private BigDecimal discountedPrice;
+    private LocalDateTime validUntil; // next promotion start/end affecting the product, null if none is scheduled
+}
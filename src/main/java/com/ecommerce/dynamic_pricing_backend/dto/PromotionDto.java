@@ -3,11 +3,12 @@ package com.ecommerce.dynamic_pricing_backend.dto;
 import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
 import lombok.Data;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
-public class PromotionDto {
+public class PromotionDto implements Serializable {
     private Long id;
     private String name;
     private String description;
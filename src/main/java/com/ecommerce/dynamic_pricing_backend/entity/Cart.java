@@ -36,6 +36,10 @@ public class Cart {
     @Column(name = "total_amount")
     private BigDecimal totalAmount;
 
+    // bumped on every change to the items; the cart's ETag is derived from it
+    @Column(name = "version")
+    private Long version = 0L;
+
     @PreUpdate
     public void preUpdate(){
         updatedAt = LocalDateTime.now();
@@ -0,0 +1,15 @@
+package com.ecommerce.dynamic_pricing_backend.entity;
+
+/**
+ * Settings shared by the table-backed id generators. Unlike IDENTITY columns they hand out ids
+ * before the INSERT, in blocks of {@link #ALLOCATION_SIZE}, so Hibernate can batch the inserts.
+ */
+public final class IdGenerators {
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
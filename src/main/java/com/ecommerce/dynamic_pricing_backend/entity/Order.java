@@ -17,7 +17,10 @@ import java.util.List;
 @Data
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "orders",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "order_number", unique = true, nullable = false)
@@ -47,6 +50,10 @@ public class Order {
     private String paymentMethod;
     private String paymentId;
 
+    // the stock hold placed at checkout, released once the order is paid, failed or cancelled
+    @Column(name = "stock_hold_id", length = 36)
+    private String stockHoldId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
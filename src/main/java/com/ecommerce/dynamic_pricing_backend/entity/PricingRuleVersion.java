@@ -0,0 +1,43 @@
+package com.ecommerce.dynamic_pricing_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "pricing_rule_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRuleVersion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // doubles as the rule version number, version 0 being the classpath rules
+
+    @Column(length = 1000)
+    private String description;
+
+    @Lob
+    @Column(nullable = false)
+    private String drl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "compilation_errors", length = 4000)
+    private String compilationErrors;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+
+    public enum Status {
+        PENDING, ACTIVE, FAILED, RETIRED
+    }
+}
@@ -45,6 +45,10 @@ public class User implements UserDetails{
     private boolean accountNonLocked = true;
     private boolean credentialsNonExpired = true;
 
+    // embedded in issued tokens; bumping it revokes every token issued before
+    @Column(name = "token_version")
+    private Long tokenVersion = 0L;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -2,6 +2,7 @@ package com.ecommerce.dynamic_pricing_backend.repository;
 
 import com.ecommerce.dynamic_pricing_backend.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,5 +16,13 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items ci LEFT JOIN FETCH ci.product WHERE c.user.id = :userId")
     Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
 
+    @Query("SELECT c.version FROM Cart c WHERE c.user.id = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
     void deleteByUserId(Long userId);
+
+    // the update takes the row lock, so write-backs of a cart and a checkout clearing it never interleave
+    @Modifying
+    @Query("UPDATE Cart c SET c.version = :version WHERE c.id = :cartId AND (c.version IS NULL OR c.version < :version)")
+    int advanceVersion(@Param("cartId") Long cartId, @Param("version") Long version);
 }
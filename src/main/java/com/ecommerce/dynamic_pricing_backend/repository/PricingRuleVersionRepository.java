@@ -0,0 +1,40 @@
+package com.ecommerce.dynamic_pricing_backend.repository;
+
+import com.ecommerce.dynamic_pricing_backend.entity.PricingRuleVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PricingRuleVersionRepository extends JpaRepository<PricingRuleVersion, Long> {
+    List<PricingRuleVersion> findAllByOrderByIdDesc();
+
+    Optional<PricingRuleVersion> findFirstByStatusOrderByActivatedAtDesc(PricingRuleVersion.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PricingRuleVersion v SET v.status = 'RETIRED' WHERE v.status = 'ACTIVE' AND v.id <> :id")
+    void retireActiveVersionsExcept(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PricingRuleVersion v SET v.status = 'ACTIVE', v.compilationErrors = NULL, v.activatedAt = :activatedAt WHERE v.id = :id")
+    int markActive(@Param("id") Long id, @Param("activatedAt") LocalDateTime activatedAt);
+
+    /**
+     * Makes {@code id} the only active version in one transaction, so no node syncing in between sees
+     * two active versions or none. Version 0, which has no row, just retires every stored version.
+     */
+    @Transactional
+    default void activateVersion(Long id, LocalDateTime activatedAt) {
+        retireActiveVersionsExcept(id);
+        markActive(id, activatedAt);
+    }
+}
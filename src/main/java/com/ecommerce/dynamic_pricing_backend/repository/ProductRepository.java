@@ -4,14 +4,16 @@ import com.ecommerce.dynamic_pricing_backend.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockOperations {
     List<Product> findByActiveTrue();
 
     List<Product> findByCategoryAndActiveTrue(String category);
@@ -31,4 +33,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("SELECT p FROM Product p WHERE p.stockQuantity <= :threshold AND p.active = true")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
+
+    // conditional, so concurrent decrements can never take stock below zero
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") Integer quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = :now WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") Integer quantity, @Param("now") LocalDateTime now);
 }
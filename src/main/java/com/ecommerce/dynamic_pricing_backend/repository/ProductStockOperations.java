@@ -0,0 +1,17 @@
+package com.ecommerce.dynamic_pricing_backend.repository;
+
+import java.util.SortedMap;
+
+/**
+ * Stock changes that must not be read-modify-write, so concurrent checkouts cannot oversell.
+ */
+public interface ProductStockOperations {
+    /**
+     * Takes each quantity off its product's stock with a conditional UPDATE, all sent as one JDBC
+     * batch. Products are updated in id order, so concurrent batches lock rows in the same order.
+     * Returns one update count per entry, in key order; 0 means the product is missing or its stock
+     * was too low. When any entry fails, the whole batch is rolled back to a savepoint, leaving the
+     * rest of the surrounding transaction as it was.
+     */
+    int[] decrementStock(SortedMap<Long, Integer> quantities);
+}
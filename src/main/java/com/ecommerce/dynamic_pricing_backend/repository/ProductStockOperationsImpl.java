@@ -0,0 +1,54 @@
+package com.ecommerce.dynamic_pricing_backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class ProductStockOperationsImpl implements ProductStockOperations {
+    private static final String DECREMENT_STOCK =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, updated_at = ? WHERE id = ? AND stock_quantity >= ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int[] decrementStock(SortedMap<Long, Integer> quantities) {
+        // runs on the connection of the surrounding transaction
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            int[] updated;
+            try (PreparedStatement statement = connection.prepareStatement(DECREMENT_STOCK)) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                    statement.setInt(1, line.getValue());
+                    statement.setTimestamp(2, now);
+                    statement.setLong(3, line.getKey());
+                    statement.setInt(4, line.getValue());
+                    statement.addBatch();
+                }
+                updated = statement.executeBatch();
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+
+            for (int count : updated) {
+                if (count == 0 || count == Statement.EXECUTE_FAILED) {
+                    connection.rollback(savepoint);
+                    return updated;
+                }
+            }
+            connection.releaseSavepoint(savepoint);
+            return updated;
+        });
+    }
+}
@@ -30,6 +30,9 @@ public interface PromotionRepository extends JpaRepository<Promotion, Long> {
             "(p.brand IS NULL OR p.brand = :brand)")
     List<Promotion> findActivePromotionsByBrand(@Param("brand") String brand, @Param("now") LocalDateTime now);
 
+    @Query("SELECT p FROM Promotion p WHERE p.active = true AND p.endDate >= :now")
+    List<Promotion> findCurrentAndUpcomingPromotions(@Param("now") LocalDateTime now);
+
     List<Promotion> findByActiveTrue();
 
     @Query("SELECT p FROM Promotion p WHERE p.endDate < :now")
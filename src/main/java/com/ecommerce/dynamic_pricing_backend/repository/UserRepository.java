@@ -3,6 +3,7 @@ package com.ecommerce.dynamic_pricing_backend.repository;
 import com.ecommerce.dynamic_pricing_backend.entity.User;
 import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -18,4 +19,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT CASE WHEN COUNT(o) > 0 THEN false ELSE true END FROM Order o WHERE o.user.id = :userId")
     boolean isFirstTimeBuyer(@Param("userId") Long userId);
+
+    // rows created before the column existed hold NULL, which counts as version 0
+    @Query("SELECT COALESCE(u.tokenVersion, 0L) FROM User u WHERE u.id = :userId")
+    Optional<Long> findTokenVersionById(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1 WHERE u.id = :userId")
+    int incrementTokenVersion(@Param("userId") Long userId);
 }
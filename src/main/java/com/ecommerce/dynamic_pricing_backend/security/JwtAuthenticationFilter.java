@@ -1,5 +1,8 @@
 package com.ecommerce.dynamic_pricing_backend.security;
 
+import com.ecommerce.dynamic_pricing_backend.config.JwtConfig;
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +26,9 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final JwtConfig jwtConfig;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -41,15 +47,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.extractUsername(jwt);
+            VerifiedToken token = jwt != null ? verify(jwt) : null;
+            if (token != null) {
+                UserDetails userDetails = loadPrincipal(token);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
@@ -58,6 +65,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // a token seen before skips signature verification and claim parsing
+    private VerifiedToken verify(String jwt) {
+        VerifiedTokenCache.Key key = verifiedTokenCache.keyFor(jwt);
+        VerifiedToken token = verifiedTokenCache.get(key);
+        if (token == null) {
+            Claims claims = jwtUtils.parseToken(jwt);
+            if (claims == null) {
+                return null;
+            }
+            token = jwtUtils.toVerifiedToken(claims);
+            verifiedTokenCache.put(key, token);
+        }
+        return token;
+    }
+
+    // returns null for revoked tokens, leaving the request unauthenticated
+    private UserDetails loadPrincipal(VerifiedToken token) {
+        long tokenVersion = token.getTokenVersion();
+        if (jwtConfig.isJwtStatelessPrincipal()) {
+            User principal = token.toPrincipal();
+            if (principal != null) {
+                return tokenVersion == tokenVersionService.currentVersion(principal.getId()) ? principal : null;
+            }
+            // tokens issued before the id/role claims existed fall back to a lookup
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token.getSubject());
+        if (userDetails instanceof User user && tokenVersion != JwtUtils.tokenVersion(user)) {
+            return null;
+        }
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
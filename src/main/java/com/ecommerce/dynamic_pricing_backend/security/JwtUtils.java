@@ -1,9 +1,10 @@
 package com.ecommerce.dynamic_pricing_backend.security;
 
 import com.ecommerce.dynamic_pricing_backend.config.JwtConfig;
+import com.ecommerce.dynamic_pricing_backend.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -15,13 +16,25 @@ import java.util.Map;
 import java.util.function.Function;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtUtils {
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
     private final JwtConfig jwtConfig;
+    // the key and parser are immutable and thread-safe, so they are built once instead of per token
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtUtils(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+        this.signingKey = Keys.hmacShaKeyFor(jwtConfig.getJwtSecret().getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
 
     private SecretKey getSigningKey(){
-        return Keys.hmacShaKeyFor(jwtConfig.getJwtSecret().getBytes());
+        return signingKey;
     }
 
     public String extractUsername(String token){
@@ -38,11 +51,7 @@ public class JwtUtils {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     private Boolean isTokenExpired(String token) {
@@ -51,16 +60,21 @@ public class JwtUtils {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+            claims.put(TOKEN_VERSION_CLAIM, tokenVersion(user));
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtConfig.getJwtExpiration()))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + jwtConfig.getJwtExpiration()))
+                .signWith(getSigningKey(), Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -70,11 +84,20 @@ public class JwtUtils {
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseToken(authToken) != null;
+    }
+
+    /**
+     * Verifies the token and returns its claims, or {@code null} if it is invalid or expired, so
+     * callers verify and read a token with a single parse.
+     */
+    public Claims parseToken(String authToken) {
         try {
-            Jwts.parser().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            return parser.parseSignedClaims(authToken).getPayload();
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
+        } catch (SignatureException e) {
+            log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
@@ -82,6 +105,28 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public User principalFromClaims(Claims claims) {
+        return toVerifiedToken(claims).toPrincipal();
+    }
+
+    public VerifiedToken toVerifiedToken(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new VerifiedToken(claims.getSubject(), userId == null ? null : userId.longValue(),
+                role == null ? null : User.Role.valueOf(role), tokenVersion(claims),
+                claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime());
+    }
+
+    // tokens issued before versions were embedded count as version 0
+    public long tokenVersion(Claims claims) {
+        Number version = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        return version == null ? 0L : version.longValue();
+    }
+
+    public static long tokenVersion(User user) {
+        return user.getTokenVersion() == null ? 0L : user.getTokenVersion();
     }
 }
@@ -0,0 +1,111 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small fixed pool with a bounded queue, so a login
+ * burst can occupy at most that many cores and the rest of the traffic keeps its CPU. When the
+ * queue is full the caller fails fast instead of waiting.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor implements DisposableBean {
+    public static final String BUSY_MESSAGE = "Password hashing is busy, retry later";
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashTimeNanos = new LongAdder();
+
+    public PasswordHashingExecutor(@Value("${app.password-hashing.threads:2}") int threads,
+                                   @Value("${app.password-hashing.queue-capacity:32}") int queueCapacity,
+                                   @Value("${app.password-hashing.timeout-millis:5000}") long timeoutMillis) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs the hashing task on the pool and waits for its result.
+     *
+     * @throws RuntimeException with {@link #BUSY_MESSAGE} when the queue is full or the task times out
+     */
+    public <T> T run(Supplier<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.get();
+                } finally {
+                    hashTimeNanos.add(System.nanoTime() - start);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RuntimeException(BUSY_MESSAGE);
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejected.increment();
+            throw new RuntimeException(BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime
+                    : new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getAverageHashTimeMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0.0 : hashTimeNanos.sum() / 1_000_000.0 / count;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
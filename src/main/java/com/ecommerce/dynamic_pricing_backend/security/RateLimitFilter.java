@@ -0,0 +1,86 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.config.RateLimitConfig;
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admission control for the endpoint groups in {@link RateLimitConfig}. Runs after the JWT filter,
+ * so authenticated requests are limited per user and anonymous ones per client IP.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimitConfig config;
+    private final RateLimiter rateLimiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (config.isEnabled()) {
+            for (Map.Entry<String, RateLimitConfig.Group> group : config.getGroups().entrySet()) {
+                if (matches(group.getValue(), request)) {
+                    if (!rateLimiter.tryAcquire(group.getKey(), group.getValue(), clientKey(request))) {
+                        reject(request, response, group.getValue());
+                        return;
+                    }
+                    break;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean matches(RateLimitConfig.Group group, HttpServletRequest request) {
+        if (!group.getMethods().isEmpty() && !group.getMethods().contains(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI();
+        for (String pattern : group.getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RateLimitConfig.Group group) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(429);
+        // time until the next token is available
+        response.setHeader("Retry-After", String.valueOf((long) Math.ceil(1 / group.getRefillPerSecond())));
+
+        final Map<String, Object> body = new HashMap<>();
+        body.put("status", 429);
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded, retry later");
+        body.put("path", request.getServletPath());
+
+        mapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.config.RateLimitConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets per group and client. Buckets live in memory and are updated under one of a fixed
+ * set of lock stripes, so unrelated clients rarely contend. With {@code redis-sync} the buckets are
+ * kept in Redis instead and updated atomically by a script, so the limit holds across nodes.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+    private static final String KEY_PREFIX = "rate-limit:";
+    private static final RedisScript<Long> TAKE_TOKEN = new DefaultRedisScript<>(
+            "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+            "local capacity = tonumber(ARGV[1]) " +
+            "local perMilli = tonumber(ARGV[2]) " +
+            "local now = tonumber(ARGV[3]) " +
+            "local tokens = tonumber(state[1]) or capacity " +
+            "local ts = tonumber(state[2]) or now " +
+            "tokens = math.min(capacity, tokens + math.max(0, now - ts) * perMilli) " +
+            "local allowed = 0 " +
+            "if tokens >= 1 then tokens = tokens - 1 allowed = 1 end " +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now) " +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / perMilli)) " +
+            "return allowed", Long.class);
+
+    private final RateLimitConfig config;
+    private final StringRedisTemplate redisTemplate;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Object[] stripes;
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitConfig config, StringRedisTemplate redisTemplate) {
+        this.config = config;
+        this.redisTemplate = redisTemplate;
+        this.stripes = new Object[Integer.highestOneBit(Math.max(1, config.getStripes()))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Takes a token from the client's bucket in the group, returning {@code false} and counting a
+     * rejection when the bucket is empty.
+     */
+    public boolean tryAcquire(String group, RateLimitConfig.Group limits, String clientKey) {
+        String key = group + ":" + clientKey;
+        boolean allowed = config.isRedisSync() ? tryAcquireShared(key, limits) : tryAcquireLocal(key, limits);
+        if (!allowed) {
+            rejections.computeIfAbsent(group, g -> new LongAdder()).increment();
+        }
+        return allowed;
+    }
+
+    public Map<String, Long> getRejections() {
+        Map<String, Long> counts = new TreeMap<>();
+        rejections.forEach((group, count) -> counts.put(group, count.sum()));
+        return counts;
+    }
+
+    // a bucket left alone long enough to refill completely is the same as a new one, so it can go
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:60000}")
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> now - bucket.updatedAt > bucket.refillNanos);
+    }
+
+    private boolean tryAcquireLocal(String key, RateLimitConfig.Group limits) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(limits, now));
+        synchronized (stripes[spread(key.hashCode()) & (stripes.length - 1)]) {
+            double refilled = (now - bucket.updatedAt) / 1e9 * limits.getRefillPerSecond();
+            bucket.tokens = Math.min(limits.getCapacity(), bucket.tokens + refilled);
+            bucket.updatedAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private boolean tryAcquireShared(String key, RateLimitConfig.Group limits) {
+        try {
+            Long allowed = redisTemplate.execute(TAKE_TOKEN, List.of(KEY_PREFIX + key),
+                    String.valueOf(limits.getCapacity()), String.valueOf(limits.getRefillPerSecond() / 1000.0),
+                    String.valueOf(System.currentTimeMillis()));
+            return allowed == null || allowed == 1L;
+        } catch (Exception e) {
+            log.debug("Rate limit check for {} fell back to the local bucket: {}", key, e.getMessage());
+            return tryAcquireLocal(key, limits);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Bucket {
+        private double tokens; // guarded by the key's stripe
+        private volatile long updatedAt; // also read by the idle sweep
+        private final long refillNanos;
+
+        private Bucket(RateLimitConfig.Group limits, long now) {
+            this.tokens = limits.getCapacity();
+            this.updatedAt = now;
+            this.refillNanos = (long) (limits.getCapacity() / limits.getRefillPerSecond() * 1e9);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Token revocation by per-user version. Tokens carry the version current when they were issued and
+ * are rejected once it has been bumped. Versions are read through the small {@code tokenVersions}
+ * cache, so checking a token normally costs no database access.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenVersionService {
+    private static final String CACHE_NAME = "tokenVersions";
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the user's current token version, or -1 if the user no longer exists so none of
+     * their tokens match.
+     */
+    @Cacheable(value = CACHE_NAME, key = "#userId", sync = true)
+    public long currentVersion(Long userId) {
+        return userRepository.findTokenVersionById(userId).orElse(-1L);
+    }
+
+    /**
+     * Revokes every token issued to the user so far. The cached version is evicted once the
+     * transaction commits, so it cannot be reloaded with the old value.
+     */
+    @Transactional
+    public void revokeTokens(Long userId) {
+        if (userRepository.incrementTokenVersion(userId) == 0) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(Long userId) {
+        Cache versions = cacheManager.getCache(CACHE_NAME);
+        if (versions != null) {
+            versions.evict(userId);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The parts of a verified token the authentication filter needs. Immutable, so one instance can be
+ * shared by every request presenting the same token.
+ */
+@Getter
+@RequiredArgsConstructor
+public class VerifiedToken {
+    private final String subject;
+    private final Long userId; // null for tokens issued without the id/role claims
+    private final User.Role role;
+    private final long tokenVersion;
+    private final long expiresAtMillis;
+
+    /**
+     * Builds a detached principal holding only the id, email and role carried by the token, or
+     * returns {@code null} for tokens issued without those claims.
+     */
+    public User toPrincipal() {
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        User principal = new User();
+        principal.setId(userId);
+        principal.setEmail(subject);
+        principal.setRole(role);
+        return principal;
+    }
+}
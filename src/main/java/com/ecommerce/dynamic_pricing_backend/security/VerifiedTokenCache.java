@@ -0,0 +1,176 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of verified tokens, so a client presenting the same bearer token again skips the
+ * signature check and claim parsing. Entries are keyed by a SHA-256 digest of the token, so raw
+ * tokens are never kept, and never outlive the token itself. Revocation is unaffected: the token
+ * version is still checked on every request.
+ */
+@Component
+public class VerifiedTokenCache {
+    // the digest and its input buffer are reused per thread, so a lookup allocates only the key
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(VerifiedTokenCache::sha256);
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[1024]);
+    private static final ThreadLocal<byte[]> HASH = ThreadLocal.withInitial(() -> new byte[32]);
+
+    private final ConcurrentHashMap<Key, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxAgeMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${app.jwt-token-cache.max-entries:10000}") int maxEntries,
+                              @Value("${app.jwt-token-cache.max-age:10m}") Duration maxAge) {
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    public Key keyFor(String token) {
+        byte[] buffer = BUFFER.get();
+        if (buffer.length < token.length()) {
+            buffer = new byte[token.length()];
+            BUFFER.set(buffer);
+        }
+        // compact JWS tokens are base64url and dots, so every char is a single byte
+        int length = token.length();
+        for (int i = 0; i < length; i++) {
+            buffer[i] = (byte) token.charAt(i);
+        }
+
+        MessageDigest digest = SHA_256.get();
+        byte[] hash = HASH.get();
+        digest.update(buffer, 0, length);
+        try {
+            digest.digest(hash, 0, hash.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Failed to digest token", e);
+        }
+        return new Key(toLong(hash, 0), toLong(hash, 8), toLong(hash, 16), toLong(hash, 24));
+    }
+
+    /**
+     * Returns the verified token, or {@code null} if it is not cached or has expired.
+     */
+    public VerifiedToken get(Key key) {
+        VerifiedToken token = entries.get(key);
+        if (token == null || token.getExpiresAtMillis() <= System.currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return token;
+    }
+
+    public void put(Key key, VerifiedToken token) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictOne();
+        }
+        long cappedExpiry = Math.min(token.getExpiresAtMillis(), System.currentTimeMillis() + maxAgeMillis);
+        entries.put(key, cappedExpiry == token.getExpiresAtMillis() ? token
+                : new VerifiedToken(token.getSubject(), token.getUserId(), token.getRole(), token.getTokenVersion(), cappedExpiry));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // expired entries are dropped here rather than on the request path
+    @Scheduled(fixedDelayString = "${app.jwt-token-cache.sweep-interval:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(token -> token.getExpiresAtMillis() <= now);
+    }
+
+    // drops an expired entry if there is one, otherwise an arbitrary one
+    private void evictOne() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Key, VerifiedToken>> iterator = entries.entrySet().iterator();
+        Key victim = null;
+        int scanned = 0;
+        while (iterator.hasNext() && scanned++ < 16) {
+            Map.Entry<Key, VerifiedToken> candidate = iterator.next();
+            if (candidate.getValue().getExpiresAtMillis() <= now) {
+                victim = candidate.getKey();
+                break;
+            }
+            if (victim == null) {
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null) {
+            entries.remove(victim);
+        }
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static final class Key {
+        private final long h0;
+        private final long h1;
+        private final long h2;
+        private final long h3;
+
+        private Key(long h0, long h1, long h2, long h3) {
+            this.h0 = h0;
+            this.h1 = h1;
+            this.h2 = h2;
+            this.h3 = h3;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return h0 == other.h0 && h1 == other.h1 && h2 == other.h2 && h3 == other.h3;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) h0;
+        }
+    }
+}
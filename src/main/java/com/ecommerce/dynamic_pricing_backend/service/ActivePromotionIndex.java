@@ -0,0 +1,267 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
+import com.ecommerce.dynamic_pricing_backend.repository.PromotionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of active and upcoming promotions keyed by category, by brand and "global".
+ * Lookups read an immutable snapshot that is swapped atomically when promotions change, and
+ * refreshed periodically to pick up changes made on other nodes. Each snapshot records the version
+ * of the promotion set it was built from, so a node that sees a newer version rebuilds early.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivePromotionIndex {
+    private final PromotionRepository promotionRepository;
+    private final CacheManager cacheManager;
+    private final CatalogVersions catalogVersions;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Returns the promotions that apply to the product at the given time. Mirrors the combination of
+     * {@code findActivePromotionsByCategory} and {@code findActivePromotionsByBrand}: a promotion applies
+     * when its category is empty or matches, or when its brand is empty or matches.
+     */
+    public List<Promotion> findApplicablePromotions(String category, String brand, LocalDateTime now) {
+        List<Promotion> applicable = new ArrayList<>();
+        for (List<Promotion> promotions : promotionsInScope(category, brand)) {
+            for (Promotion promotion : promotions) {
+                if (!promotion.getStartDate().isAfter(now) && !promotion.getEndDate().isBefore(now)) {
+                    applicable.add(promotion);
+                }
+            }
+        }
+        return applicable;
+    }
+
+    /**
+     * Returns the next instant after {@code now} at which a promotion in the product's scope starts or ends,
+     * i.e. the moment a price computed at {@code now} stops being valid, or {@code null} if none is scheduled.
+     */
+    public LocalDateTime findNextPriceBoundary(String category, String brand, LocalDateTime now) {
+        LocalDateTime next = null;
+        for (List<Promotion> promotions : promotionsInScope(category, brand)) {
+            for (Promotion promotion : promotions) {
+                LocalDateTime boundary;
+                if (promotion.getStartDate().isAfter(now)) {
+                    boundary = promotion.getStartDate();
+                } else if (!promotion.getEndDate().isBefore(now)) {
+                    // the promotion still applies at endDate itself
+                    boundary = promotion.getEndDate().plusNanos(1);
+                } else {
+                    continue;
+                }
+                if (next == null || boundary.isBefore(next)) {
+                    next = boundary;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Identifies the promotion prices in effect at {@code now}: the version of the promotion set plus
+     * the last promotion start or end before {@code now} and the next one after it. The tag changes
+     * whenever a promotion is written or a promotion window opens or closes, and is the same on every
+     * node. Returns null when the version cannot be read.
+     */
+    public String priceStateTag(LocalDateTime now) {
+        long version = promotionVersion();
+        if (version < 0) {
+            return null;
+        }
+        Snapshot current = snapshotAtLeast(version);
+        return current.version + "." + priceWindow(current, now);
+    }
+
+    /**
+     * The published version of the promotion set, after rebuilding the index if it is older. Cached
+     * product prices are keyed with it, so a price computed from a snapshot that predates a promotion
+     * change is never served once the change is published. Falls back to the index's own version when
+     * the published one cannot be read.
+     */
+    public long currentVersion() {
+        long version = promotionVersion();
+        Snapshot current = snapshotAtLeast(version);
+        return version < 0 ? current.version : version;
+    }
+
+    /**
+     * The promotion start or end boundaries around {@code now}, for keying cached views of the
+     * currently active promotions.
+     */
+    public String priceWindow(LocalDateTime now) {
+        return priceWindow(currentSnapshot(), now);
+    }
+
+    private String priceWindow(Snapshot current, LocalDateTime now) {
+        long instant = toNanos(now);
+        // index of the first boundary after now; the one before it is the last boundary already passed
+        int next = Arrays.binarySearch(current.boundaries, instant);
+        next = next >= 0 ? next + 1 : -next - 1;
+        while (next < current.boundaries.length && current.boundaries[next] <= instant) {
+            next++;
+        }
+        long previousBoundary = next > 0 ? current.boundaries[next - 1] : 0L;
+        long nextBoundary = next < current.boundaries.length ? current.boundaries[next] : 0L;
+        return Long.toString(previousBoundary, 36) + "." + Long.toString(nextBoundary, 36);
+    }
+
+    /**
+     * Rebuilds the index once the surrounding transaction commits, or immediately when there is none,
+     * so the new snapshot never contains uncommitted promotion changes. Cached product prices are
+     * evicted only after the new snapshot is published, so they cannot be recomputed from the old one.
+     */
+    public void refreshAfterCommit() {
+        // registered first, so the new version is published before this node rebuilds
+        catalogVersions.scopesChangedAfterCommit(List.of(CatalogVersions.PROMOTIONS));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshAndEvictPrices();
+                }
+            });
+        } else {
+            refreshAndEvictPrices();
+        }
+    }
+
+    private void refreshAndEvictPrices() {
+        refresh();
+        Cache productPrices = cacheManager.getCache("productPrices");
+        if (productPrices != null) {
+            productPrices.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.promotion-index.refresh-interval:60000}")
+    public void refresh() {
+        try {
+            snapshot = loadSnapshot();
+        } catch (Exception e) {
+            log.error("Failed to refresh active promotion index: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot snapshotAtLeast(long version) {
+        Snapshot current = currentSnapshot();
+        return current.version < version ? refreshIfOlderThan(version) : current;
+    }
+
+    // one rebuild per new version, however many requests notice it at once
+    private synchronized Snapshot refreshIfOlderThan(long version) {
+        if (snapshot.version < version) {
+            refresh();
+        }
+        return snapshot;
+    }
+
+    private Snapshot loadSnapshot() {
+        // read before the promotions, so a change committed in between triggers another rebuild
+        long version = promotionVersion();
+        return buildSnapshot(version, promotionRepository.findCurrentAndUpcomingPromotions(LocalDateTime.now()));
+    }
+
+    private long promotionVersion() {
+        try {
+            return catalogVersions.current(CatalogVersions.PROMOTIONS);
+        } catch (Exception e) {
+            log.warn("Failed to read promotion version: {}", e.getMessage());
+            return -1L;
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = loadSnapshot();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private List<List<Promotion>> promotionsInScope(String category, String brand) {
+        Snapshot current = currentSnapshot();
+        List<Promotion> byCategory = category == null ? Collections.emptyList()
+                : current.byCategory.getOrDefault(category, Collections.emptyList());
+        List<Promotion> byBrand = brand == null ? Collections.emptyList()
+                : current.byBrand.getOrDefault(brand, Collections.emptyList());
+        return List.of(current.global, byCategory, byBrand);
+    }
+
+    private Snapshot buildSnapshot(long version, List<Promotion> promotions) {
+        List<Promotion> global = new ArrayList<>();
+        Map<String, List<Promotion>> byCategory = new HashMap<>();
+        Map<String, List<Promotion>> byBrand = new HashMap<>();
+        long[] boundaries = new long[promotions.size() * 2];
+
+        int i = 0;
+        for (Promotion promotion : promotions) {
+            boundaries[i++] = toNanos(promotion.getStartDate());
+            // the promotion still applies at endDate itself
+            boundaries[i++] = toNanos(promotion.getEndDate()) + 1;
+
+            if (promotion.getCategory() == null || promotion.getBrand() == null) {
+                global.add(promotion);
+            } else {
+                byCategory.computeIfAbsent(promotion.getCategory(), k -> new ArrayList<>()).add(promotion);
+                byBrand.computeIfAbsent(promotion.getBrand(), k -> new ArrayList<>()).add(promotion);
+            }
+        }
+
+        Arrays.sort(boundaries);
+        return new Snapshot(version, List.copyOf(global), copyOf(byCategory), copyOf(byBrand), boundaries);
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private Map<String, List<Promotion>> copyOf(Map<String, List<Promotion>> source) {
+        Map<String, List<Promotion>> copy = new HashMap<>();
+        source.forEach((key, value) -> copy.put(key, List.copyOf(value)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final List<Promotion> global;
+        private final Map<String, List<Promotion>> byCategory;
+        private final Map<String, List<Promotion>> byBrand;
+        private final long[] boundaries; // sorted promotion starts and ends, as epoch nanos
+
+        private Snapshot(long version, List<Promotion> global, Map<String, List<Promotion>> byCategory,
+                         Map<String, List<Promotion>> byBrand, long[] boundaries) {
+            this.version = version;
+            this.global = global;
+            this.byCategory = byCategory;
+            this.byBrand = byBrand;
+            this.boundaries = boundaries;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.config.CacheStatistics;
+import com.ecommerce.dynamic_pricing_backend.config.TwoTierCacheManager;
+import com.ecommerce.dynamic_pricing_backend.dto.CacheStatsDto;
+import com.ecommerce.dynamic_pricing_backend.security.VerifiedTokenCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports the per-cache counters of this node, so cache sizes and TTLs can be tuned from data.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+    private static final String CART_PRICING = "cartPricing";
+    private static final String VERIFIED_TOKENS = "verifiedTokens";
+
+    private final TwoTierCacheManager cacheManager;
+    private final CartPricingCache cartPricingCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public List<CacheStatsDto> getCacheStats() {
+        List<CacheStatsDto> stats = new ArrayList<>();
+        cacheManager.getStatistics().forEach((name, statistics) -> stats.add(convertToDto(name, statistics)));
+
+        stats.add(localOnly(CART_PRICING, cartPricingCache.getHitCount(), cartPricingCache.getMissCount(),
+                cartPricingCache.size()));
+
+        stats.add(localOnly(VERIFIED_TOKENS, verifiedTokenCache.getHitCount(), verifiedTokenCache.getMissCount(),
+                verifiedTokenCache.size()));
+
+        return stats;
+    }
+
+    // local-only caches report hits and misses but no loads
+    private CacheStatsDto localOnly(String name, long hits, long misses, int size) {
+        CacheStatsDto dto = new CacheStatsDto();
+        dto.setName(name);
+        dto.setHits(hits);
+        dto.setLocalHits(hits);
+        dto.setMisses(misses);
+        dto.setHitRatio(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        dto.setLocalSize(size);
+        return dto;
+    }
+
+    private CacheStatsDto convertToDto(String name, CacheStatistics statistics) {
+        CacheStatsDto dto = new CacheStatsDto();
+        dto.setName(name);
+        dto.setHits(statistics.getHits());
+        dto.setLocalHits(statistics.getLocalHits());
+        dto.setMisses(statistics.getMisses());
+        dto.setHitRatio(statistics.getHitRatio());
+        dto.setEvictions(statistics.getEvictions());
+        dto.setSizeEvictions(statistics.getSizeEvictions());
+        dto.setLoads(statistics.getLoads());
+        dto.setAverageLoadTimeMicros(statistics.getLoads() == 0 ? 0.0
+                : statistics.getTotalLoadTimeNanos() / 1_000.0 / statistics.getLoads());
+        dto.setCoalescedLoads(statistics.getCoalescedLoads());
+        dto.setRefreshes(statistics.getRefreshes());
+        dto.setLocalSize(statistics.getLocalSize());
+        return dto;
+    }
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-memory cache of automatic discount results keyed by a fingerprint of the cart contents
+ * (product ids, quantities and unit prices), the pricing engine and the versions of the rule sets that
+ * produced them, so repeated cart views skip rule evaluation. A rule change yields a new version and
+ * therefore a miss.
+ */
+@Component
+public class CartPricingCache {
+    private final ConcurrentHashMap<Key, CachedDiscounts> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxAgeNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CartPricingCache(@Value("${app.cache.cart-pricing.max-entries:10000}") int maxEntries,
+                            @Value("${app.cache.cart-pricing.max-age:5m}") Duration maxAge) {
+        this.maxEntries = maxEntries;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public Key keyFor(Cart cart, String engine, long ruleVersion, long discountRuleVersion) {
+        List<CartItem> items = cart.getItems();
+        long[] lines = new long[items.size() * 3];
+        int i = 0;
+        for (CartItem item : items) {
+            lines[i++] = item.getProduct().getId();
+            lines[i++] = item.getQuantity();
+            lines[i++] = MinorUnitPricing.toMinorUnits(item.getUnitPrice());
+        }
+        return new Key(sortByProduct(lines), engine, ruleVersion, discountRuleVersion);
+    }
+
+    /**
+     * Copies the cached automatic discounts into {@code result} and returns {@code true} on a hit.
+     */
+    public boolean applyCached(Key key, PriceCalculationResult result) {
+        CachedDiscounts entry = entries.get(key);
+        if (entry == null || entry.expiresAt - System.nanoTime() < 0) {
+            misses.increment();
+            return false;
+        }
+
+        hits.increment();
+        result.setDiscountAmount(result.getDiscountAmount().add(entry.discountAmount));
+        result.getAppliedDiscounts().addAll(entry.appliedDiscounts);
+        result.setRuleVersion(entry.ruleVersion);
+        result.setPricingEngine(entry.pricingEngine);
+        return true;
+    }
+
+    /**
+     * Stores the automatic discounts of a freshly priced cart, before any promotion code has been applied.
+     */
+    public void put(Key key, PriceCalculationResult result) {
+        if (entries.size() >= maxEntries) {
+            evictOne();
+        }
+        entries.put(key, new CachedDiscounts(result.getDiscountAmount(), List.copyOf(result.getAppliedDiscounts()),
+                result.getRuleVersion(), result.getPricingEngine(), System.nanoTime() + maxAgeNanos));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // drops an expired entry if there is one, otherwise an arbitrary one
+    private void evictOne() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Key, CachedDiscounts>> iterator = entries.entrySet().iterator();
+        Key victim = null;
+        int scanned = 0;
+        while (iterator.hasNext() && scanned++ < 16) {
+            Map.Entry<Key, CachedDiscounts> candidate = iterator.next();
+            if (candidate.getValue().expiresAt - now < 0) {
+                victim = candidate.getKey();
+                break;
+            }
+            if (victim == null) {
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null) {
+            entries.remove(victim);
+        }
+    }
+
+    // line order does not change the price, so (productId, quantity, unitPrice) triples are sorted by product id
+    private static long[] sortByProduct(long[] lines) {
+        for (int i = 3; i < lines.length; i += 3) {
+            for (int j = i; j > 0 && lines[j - 3] > lines[j]; j -= 3) {
+                for (int k = 0; k < 3; k++) {
+                    long tmp = lines[j - 3 + k];
+                    lines[j - 3 + k] = lines[j + k];
+                    lines[j + k] = tmp;
+                }
+            }
+        }
+        return lines;
+    }
+
+    public static final class Key {
+        private final long[] lines;
+        private final String engine;
+        private final long ruleVersion;
+        private final long discountRuleVersion;
+        private final int hash;
+
+        private Key(long[] lines, String engine, long ruleVersion, long discountRuleVersion) {
+            this.lines = lines;
+            this.engine = engine;
+            this.ruleVersion = ruleVersion;
+            this.discountRuleVersion = discountRuleVersion;
+            this.hash = 31 * (31 * (31 * Arrays.hashCode(lines) + engine.hashCode()) + Long.hashCode(ruleVersion))
+                    + Long.hashCode(discountRuleVersion);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && ruleVersion == other.ruleVersion &&
+                    discountRuleVersion == other.discountRuleVersion && engine.equals(other.engine) &&
+                    Arrays.equals(lines, other.lines);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class CachedDiscounts {
+        private final BigDecimal discountAmount;
+        private final List<String> appliedDiscounts;
+        private final Long ruleVersion;
+        private final String pricingEngine;
+        private final long expiresAt;
+
+        private CachedDiscounts(BigDecimal discountAmount, List<String> appliedDiscounts, Long ruleVersion,
+                                String pricingEngine, long expiresAt) {
+            this.discountAmount = discountAmount;
+            this.appliedDiscounts = appliedDiscounts;
+            this.ruleVersion = ruleVersion;
+            this.pricingEngine = pricingEngine;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.ecommerce.dynamic_pricing_backend.service;
 
 import com.ecommerce.dynamic_pricing_backend.dto.AddToCartRequest;
 import com.ecommerce.dynamic_pricing_backend.dto.CartDto;
+import com.ecommerce.dynamic_pricing_backend.dto.CartItemOperation;
 import com.ecommerce.dynamic_pricing_backend.dto.CartItemDto;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
 import com.ecommerce.dynamic_pricing_backend.entity.Cart;
 import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
 import com.ecommerce.dynamic_pricing_backend.entity.Product;
@@ -16,7 +18,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,18 +34,20 @@ public class CartService {
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final PricingService pricingService;
+    private final HotCartStore hotCartStore;
 
     public CartDto getCartByUserId(Long userId){
-        Cart cart = cartRepository.findByUserIdWithItems(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+        return convertToDto(loadCart(userId));
+    }
 
-        return convertToDto(cart);
+    /**
+     * Prices the user's cart with the named pricing engine, or the deployment default when {@code engine} is null.
+     */
+    public PriceCalculationResult getCartPricing(Long userId, String engine) {
+        return pricingService.calculateCartPricing(loadCart(userId), null, engine);
     }
 
     public CartDto addItemToCart(Long userId, AddToCartRequest request) {
-        Cart cart = cartRepository.findByUserIdWithItems(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
-
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + request.getProductId()));
 
@@ -50,6 +59,13 @@ public class CartService {
             throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
         }
 
+        if (hotCartStore.isEnabled()) {
+            return convertToDto(hotCartStore.addItem(userId, product, request.getQuantity()));
+        }
+
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+
         // Check if item already exists in cart
         CartItem existingItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), product.getId())
                 .orElse(null);
@@ -82,6 +98,13 @@ public class CartService {
 
 
     public CartDto updateCartItemQuantity(Long userId, Long productId, Integer quantity) {
+        if (hotCartStore.isEnabled()) {
+            int stock = quantity <= 0 ? 0 : productRepository.findById(productId)
+                    .map(Product::getStockQuantity)
+                    .orElse(0);
+            return convertToDto(hotCartStore.setQuantity(userId, productId, quantity, stock));
+        }
+
         Cart cart = cartRepository.findByUserIdWithItems(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
 
@@ -107,6 +130,10 @@ public class CartService {
 
     @Transactional
     public CartDto removeItemFromCart(Long userId, Long productId) {
+        if (hotCartStore.isEnabled()) {
+            return convertToDto(hotCartStore.removeItem(userId, productId));
+        }
+
         Cart cart = cartRepository.findByUserIdWithItems(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
 
@@ -123,12 +150,131 @@ public class CartService {
     }
 
 
+    /**
+     * Applies add, update and remove operations in order, all of them or none. The cart and the
+     * products involved are each loaded once, and the cart is priced once at the end.
+     */
+    public CartDto applyCartOperations(Long userId, List<CartItemOperation> operations) {
+        Map<Long, Product> products = loadProducts(operations);
+
+        if (hotCartStore.isEnabled()) {
+            return convertToDto(hotCartStore.applyOperations(userId, operations, products));
+        }
+
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+
+        // work out every line's final quantity first, so a failing operation leaves the cart untouched
+        Map<Long, CartItem> items = new HashMap<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem item : cart.getItems()) {
+            items.put(item.getProduct().getId(), item);
+            quantities.put(item.getProduct().getId(), item.getQuantity());
+        }
+
+        for (CartItemOperation operation : operations) {
+            Long productId = operation.getProductId();
+            Integer current = quantities.get(productId);
+            switch (operation.getAction()) {
+                case ADD -> {
+                    int quantity = (current == null ? 0 : current) + operation.getQuantity();
+                    checkStock(products.get(productId), quantity);
+                    quantities.put(productId, quantity);
+                }
+                case UPDATE -> {
+                    if (current == null) {
+                        throw new RuntimeException("Item not found in cart");
+                    }
+                    if (operation.getQuantity() <= 0) {
+                        quantities.remove(productId);
+                    } else {
+                        checkStock(products.get(productId), operation.getQuantity());
+                        quantities.put(productId, operation.getQuantity());
+                    }
+                }
+                case REMOVE -> {
+                    if (current == null) {
+                        throw new RuntimeException("Cart item not found for product: " + productId);
+                    }
+                    quantities.remove(productId);
+                }
+            }
+        }
+
+        // orphan removal deletes dropped lines, and new lines are inserted together when the cart is saved
+        cart.getItems().removeIf(item -> !quantities.containsKey(item.getProduct().getId()));
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            CartItem item = items.get(line.getKey());
+            if (item == null) {
+                Product product = products.get(line.getKey());
+                item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(product);
+                item.setUnitPrice(product.getPrice());
+                cart.getItems().add(item);
+            } else if (item.getQuantity().equals(line.getValue())) {
+                continue;
+            }
+            item.setQuantity(line.getValue());
+            item.setTotalPrice(item.getUnitPrice().multiply(BigDecimal.valueOf(line.getValue())));
+        }
+
+        updateCartTotals(cart);
+        return convertToDto(cart);
+    }
+
     public void clearCart(Long userId) {
+        // written through first, so the cleared cart's version follows the last one handed out
+        Map<Long, Integer> flushed = hotCartStore.isEnabled() ? hotCartStore.flush(userId) : null;
+
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
         cartItemRepository.deleteByCartId(cart.getId());
         cart.setTotalAmount(BigDecimal.ZERO);
+        bumpVersion(cart);
         cartRepository.save(cart);
+
+        if (hotCartStore.isEnabled()) {
+            // only what was written through is taken out, so an item added meanwhile stays in the cart
+            hotCartStore.removeAfterCommit(userId, flushed);
+        }
+    }
+
+    /**
+     * Takes the lines of a placed order out of the user's cart. Only the ordered quantities are
+     * removed, so anything added after checkout read the cart stays in it.
+     */
+    public void clearCart(Long userId, Map<Long, Integer> orderedQuantities) {
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+        // orphan removal deletes the rows; the tables hold exactly what the order was built from
+        cart.getItems().removeIf(item -> orderedQuantities.containsKey(item.getProduct().getId()));
+        updateCartTotals(cart);
+
+        if (hotCartStore.isEnabled()) {
+            hotCartStore.removeAfterCommit(userId, orderedQuantities);
+        }
+    }
+
+    /**
+     * Returns the version of the user's cart without loading its items, or null if there is none.
+     */
+    @Transactional(readOnly = true)
+    public Long getCartVersion(Long userId) {
+        if (hotCartStore.isEnabled()) {
+            return hotCartStore.version(userId);
+        }
+        return cartRepository.findVersionByUserId(userId).orElse(null);
+    }
+
+    /**
+     * Writes a Redis-held cart through to the tables, so code reading the cart from the database
+     * (checkout) sees its latest contents. Does nothing when carts are kept in the database.
+     */
+    public void flushCart(Long userId) {
+        if (hotCartStore.isEnabled()) {
+            hotCartStore.flush(userId);
+        }
     }
 
     public void createCartForUser(User user) {
@@ -139,19 +285,75 @@ public class CartService {
         cartRepository.save(cart);
     }
 
+    // loads every product the operations need in one query, checking what does not depend on the cart
+    private Map<Long, Product> loadProducts(List<CartItemOperation> operations) {
+        Set<Long> productIds = new HashSet<>();
+        for (CartItemOperation operation : operations) {
+            productIds.add(operation.getProductId());
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+
+        for (CartItemOperation operation : operations) {
+            Integer quantity = operation.getQuantity();
+            if (operation.getAction() == CartItemOperation.Action.ADD && (quantity == null || quantity < 1)) {
+                throw new RuntimeException("Invalid cart operation: quantity must be at least 1 to add product " + operation.getProductId());
+            } else if (operation.getAction() == CartItemOperation.Action.UPDATE && quantity == null) {
+                throw new RuntimeException("Invalid cart operation: quantity is required to update product " + operation.getProductId());
+            }
+
+            // removing, or updating to zero, works even for products that no longer exist
+            if (operation.getAction() == CartItemOperation.Action.REMOVE || quantity <= 0) {
+                continue;
+            }
+            Product product = products.get(operation.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Product not found with id: " + operation.getProductId());
+            }
+            if (operation.getAction() == CartItemOperation.Action.ADD && !product.getActive()) {
+                throw new RuntimeException("Product is not available");
+            }
+        }
+        return products;
+    }
+
+    private void checkStock(Product product, int quantity) {
+        if (product.getStockQuantity() < quantity) {
+            throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
+        }
+    }
+
+    // a detached snapshot from Redis when the hot cart store is enabled, otherwise the managed entity
+    private Cart loadCart(Long userId) {
+        if (hotCartStore.isEnabled()) {
+            return hotCartStore.getCart(userId);
+        }
+        return cartRepository.findByUserIdWithItems(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+    }
+
     private void updateCartTotals(Cart cart) {
-        BigDecimal subtotal = cart.getItems().stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long subtotal = 0L;
+        for (CartItem item : cart.getItems()) {
+            subtotal = Math.addExact(subtotal, MinorUnitPricing.toMinorUnits(item.getTotalPrice()));
+        }
 
-        cart.setTotalAmount(subtotal);
+        cart.setTotalAmount(MinorUnitPricing.toBigDecimal(subtotal));
         cart.setUpdatedAt(LocalDateTime.now());
+        bumpVersion(cart);
 
         cartRepository.save(cart);
 
         System.out.println("Inside updateCartTotals: fresh cart total = " + cart.getTotalAmount());
     }
 
+    private void bumpVersion(Cart cart) {
+        cart.setVersion(cart.getVersion() == null ? 1L : cart.getVersion() + 1);
+    }
+
     private CartDto convertToDto(Cart cart) {
         CartDto dto = new CartDto();
         dto.setId(cart.getId());
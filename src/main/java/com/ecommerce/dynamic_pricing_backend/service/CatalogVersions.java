@@ -0,0 +1,167 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Version counters for cached catalog listings. Listing cache keys embed the version of their scope
+ * (the full catalog, one category, one brand or search), so bumping a scope makes its old entries
+ * unreachable without flushing the others; they then age out with the cache TTL. The
+ * {@code promotions} scope versions the promotion set. Counters live in Redis so every node agrees
+ * on them, and are read through the {@code catalogVersions} cache. Stock changes leave the listings
+ * alone, so their stock figures may lag until the entries expire.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersions {
+    public static final String ALL = "all";
+    public static final String SEARCH = "search";
+    public static final String PROMOTIONS = "promotions";
+
+    private static final String CACHE_NAME = "catalogVersions";
+    private static final String KEY_PREFIX = "catalog-version:";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+
+    public static String category(String category) {
+        return "category:" + category;
+    }
+
+    public static String brand(String brand) {
+        return "brand:" + brand;
+    }
+
+    /**
+     * Returns the current version of a listing scope, for use in cache keys.
+     */
+    public long current(String scope) {
+        Long version = versions().get(scope, () -> {
+            String stored = redisTemplate.opsForValue().get(KEY_PREFIX + scope);
+            return stored == null ? 0L : Long.parseLong(stored);
+        });
+        return version == null ? 0L : version;
+    }
+
+    public long categoryVersion(String category) {
+        return current(category(category));
+    }
+
+    public long brandVersion(String brand) {
+        return current(brand(brand));
+    }
+
+    /**
+     * Invalidates the cached entry of each product and the listings that may contain it once the
+     * surrounding transaction commits, or immediately when there is none, so no listing is rebuilt
+     * from uncommitted data. {@code previous} holds the category/brand scopes a product had before
+     * the change, so it also drops out of the listings it left.
+     */
+    public void productsChangedAfterCommit(Collection<Product> products, Collection<String> previous) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        Set<String> scopes = new LinkedHashSet<>(previous);
+        scopes.add(ALL);
+        scopes.add(SEARCH);
+        for (Product product : products) {
+            productIds.add(product.getId());
+            if (product.getCategory() != null) {
+                scopes.add(category(product.getCategory()));
+            }
+            if (product.getBrand() != null) {
+                scopes.add(brand(product.getBrand()));
+            }
+        }
+
+        afterCommit(() -> invalidate(productIds, scopes));
+    }
+
+    /**
+     * Evicts the cached entry of each product once the surrounding transaction commits, or immediately
+     * when there is none, for a change to stock only. Listings are not bumped, so checkouts do not
+     * flush every listing and search page on every node.
+     */
+    public void stockChangedAfterCommit(Collection<Long> productIds) {
+        Set<Long> changed = new LinkedHashSet<>(productIds);
+        afterCommit(() -> {
+            Cache product = cacheManager.getCache("product");
+            if (product != null) {
+                changed.forEach(product::evict);
+            }
+        });
+    }
+
+    /**
+     * Bumps the given scopes once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void scopesChangedAfterCommit(Collection<String> scopes) {
+        Set<String> changed = new LinkedHashSet<>(scopes);
+        afterCommit(() -> invalidate(Set.of(), changed));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void invalidate(Set<Long> productIds, Set<String> scopes) {
+        Cache product = cacheManager.getCache("product");
+        Cache productPrices = cacheManager.getCache("productPrices");
+        Long promotions = productIds.isEmpty() ? null : currentOrNull(PROMOTIONS);
+        if (productPrices != null && !productIds.isEmpty() && promotions == null) {
+            // the keys of the current price quotes are unknown, so drop them all
+            productPrices.clear();
+        }
+        for (Long productId : productIds) {
+            if (product != null) {
+                product.evict(productId);
+            }
+            if (productPrices != null && promotions != null) {
+                // quotes of older promotion versions are unreachable already
+                productPrices.evict(productId + ":" + promotions);
+            }
+        }
+
+        for (String scope : scopes) {
+            try {
+                Long version = redisTemplate.opsForValue().increment(KEY_PREFIX + scope);
+                versions().put(scope, version);
+            } catch (Exception e) {
+                // the listing stays stale until its entries expire
+                log.error("Failed to bump catalog version {}: {}", scope, e.getMessage());
+            }
+        }
+    }
+
+    private Long currentOrNull(String scope) {
+        try {
+            return current(scope);
+        } catch (Exception e) {
+            log.warn("Failed to read catalog version {}: {}", scope, e.getMessage());
+            return null;
+        }
+    }
+
+    private Cache versions() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.runtime.StatelessKieSession;
+
+import java.util.List;
+
+/**
+ * A compiled, immutable rule set version. Pricing calls read the current instance once and keep
+ * using it until they finish, so publishing a new version never affects in-flight calls.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CompiledRuleSet {
+    private final long version;
+    private final StatelessKieSession session;
+    private final ReleaseId releaseId; // null for the classpath rules
+    private final List<NativeCartRules.Rule> nativeRules; // null when the DRL uses more than the native engine supports
+}
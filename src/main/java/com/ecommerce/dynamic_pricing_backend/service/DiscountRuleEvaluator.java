@@ -0,0 +1,195 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.entity.DiscountRule;
+import com.ecommerce.dynamic_pricing_backend.repository.DiscountRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Evaluates the database-driven {@link DiscountRule}s against a cart without any I/O. Active rules are
+ * compiled once into an immutable, priority-ordered list with their conditions pre-parsed, and the
+ * compiled set is swapped atomically when the rules are reloaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DiscountRuleEvaluator {
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    private final DiscountRuleRepository discountRuleRepository;
+
+    private volatile List<CompiledRule> compiledRules;
+    private volatile long version;
+    private volatile String fingerprint;
+    private List<DiscountRule> sourceRules;
+
+    public void applyDiscountRules(Cart cart, PriceCalculationResult result) {
+        List<CompiledRule> rules = currentRules();
+        if (rules.isEmpty()) {
+            return;
+        }
+
+        // cart aggregates are computed once and shared by every rule
+        long cartTotalMinorUnits = 0L;
+        int totalQuantity = 0;
+        for (CartItem item : cart.getItems()) {
+            cartTotalMinorUnits = Math.addExact(cartTotalMinorUnits, MinorUnitPricing.lineTotal(
+                    MinorUnitPricing.toMinorUnits(item.getUnitPrice()), item.getQuantity()));
+            totalQuantity += item.getQuantity();
+        }
+        BigDecimal cartTotal = MinorUnitPricing.toBigDecimal(cartTotalMinorUnits);
+        BigDecimal quantity = BigDecimal.valueOf(totalQuantity);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (CompiledRule rule : rules) {
+            if (!rule.isActiveAt(now)) {
+                continue;
+            }
+
+            BigDecimal value = rule.ruleType == DiscountRule.RuleType.CART_TOTAL ? cartTotal : quantity;
+            if (rule.matches(value)) {
+                result.setDiscountAmount(result.getDiscountAmount().add(rule.discountFor(cartTotal)));
+                result.getAppliedDiscounts().add(rule.name);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.discount-rules.refresh-interval:60000}")
+    public void refresh() {
+        try {
+            install(discountRuleRepository.findByActiveTrueOrderByPriorityDesc());
+        } catch (Exception e) {
+            log.error("Failed to reload discount rules: {}", e.getMessage());
+        }
+    }
+
+    private List<CompiledRule> currentRules() {
+        List<CompiledRule> current = compiledRules;
+        if (current == null) {
+            synchronized (this) {
+                current = compiledRules;
+                if (current == null) {
+                    current = install(discountRuleRepository.findByActiveTrueOrderByPriorityDesc());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Version of the compiled rule set, incremented whenever a reload changes the active rules.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Identifies the rules in effect at {@code now} by the content of the loaded rule set and which of
+     * its rules are inside their date window. Unlike {@link #getVersion()}, it is the same on every node
+     * that loaded the same rules, so it can go into ETags.
+     */
+    public String stateTag(LocalDateTime now) {
+        List<CompiledRule> rules = currentRules();
+        String loaded = fingerprint;
+        BitSet active = new BitSet(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            active.set(i, rules.get(i).isActiveAt(now));
+        }
+        return loaded + "." + Integer.toHexString(Arrays.hashCode(active.toLongArray()));
+    }
+
+    private synchronized List<CompiledRule> install(List<DiscountRule> rules) {
+        if (compiledRules != null && rules.equals(sourceRules)) {
+            return compiledRules;
+        }
+        List<CompiledRule> compiled = compile(rules);
+        sourceRules = List.copyOf(rules);
+        // entity toString covers every field and is stable across JVMs, unlike the enum hash codes
+        fingerprint = Integer.toHexString(sourceRules.toString().hashCode());
+        compiledRules = compiled;
+        // bumped after publishing, so a result computed with the old rules is never stored under the new version
+        version++;
+        return compiled;
+    }
+
+    private List<CompiledRule> compile(List<DiscountRule> rules) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (DiscountRule rule : rules) {
+            // only cart total and quantity rules can be evaluated against a cart
+            if (rule.getRuleType() != DiscountRule.RuleType.CART_TOTAL &&
+                    rule.getRuleType() != DiscountRule.RuleType.QUANTITY_BASED) {
+                continue;
+            }
+            if (rule.getConditionOperator() == null || rule.getConditionOperator() == DiscountRule.ConditionOperator.CONTAINS) {
+                continue;
+            }
+
+            try {
+                compiled.add(new CompiledRule(rule));
+            } catch (RuntimeException e) {
+                log.warn("Skipping discount rule '{}' with invalid condition or discount: {}", rule.getName(), e.getMessage());
+            }
+        }
+        return List.copyOf(compiled);
+    }
+
+    private static final class CompiledRule {
+        private final String name;
+        private final DiscountRule.RuleType ruleType;
+        private final DiscountRule.ConditionOperator operator;
+        private final BigDecimal threshold;
+        private final boolean percentage;
+        private final BigDecimal discount; // rate for percentage rules, amount otherwise
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+
+        private CompiledRule(DiscountRule rule) {
+            this.name = rule.getName();
+            this.ruleType = rule.getRuleType();
+            this.operator = rule.getConditionOperator();
+            this.threshold = new BigDecimal(rule.getConditionValue());
+            this.percentage = rule.getDiscountType() == DiscountRule.DiscountType.PERCENTAGE;
+            this.discount = percentage ? rule.getDiscountValue().divide(ONE_HUNDRED) : rule.getDiscountValue();
+            this.startDate = rule.getStartDate();
+            this.endDate = rule.getEndDate();
+        }
+
+        private boolean isActiveAt(LocalDateTime now) {
+            return (startDate == null || !startDate.isAfter(now)) && (endDate == null || !endDate.isBefore(now));
+        }
+
+        private boolean matches(BigDecimal value) {
+            int comparison = value.compareTo(threshold);
+            switch (operator) {
+                case GREATER_THAN:
+                    return comparison > 0;
+                case GREATER_THAN_OR_EQUAL:
+                    return comparison >= 0;
+                case LESS_THAN:
+                    return comparison < 0;
+                case LESS_THAN_OR_EQUAL:
+                    return comparison <= 0;
+                case EQUALS:
+                    return comparison == 0;
+                default:
+                    return false;
+            }
+        }
+
+        private BigDecimal discountFor(BigDecimal cartTotal) {
+            return percentage ? cartTotal.multiply(discount) : discount;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.CartDto;
+import com.ecommerce.dynamic_pricing_backend.dto.CartItemDto;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates the active DRL rule set published by {@link PricingRuleService}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DroolsPricingEngine implements PricingEngine {
+    public static final String NAME = "drools";
+
+    private final PricingRuleService pricingRuleService;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long getVersion() {
+        return pricingRuleService.getActiveRules().getVersion();
+    }
+
+    @Override
+    public void applyDiscounts(Cart cart, PriceCalculationResult result) {
+        // the rule set is read once, so a version published mid-call does not affect this call
+        applyDiscounts(pricingRuleService.getActiveRules(), cart, result);
+    }
+
+    CompiledRuleSet getActiveRules() {
+        return pricingRuleService.getActiveRules();
+    }
+
+    void applyDiscounts(CompiledRuleSet rules, Cart cart, PriceCalculationResult result) {
+        // converting Cart to CartDto for rules engine
+        CartDto cartDto = convertCartToDto(cart, result);
+
+        // inserting facts and firing all applicable rules in a per-call working memory,
+        // which is discarded afterwards so no facts leak into the next request
+        rules.getSession().execute(Arrays.asList(cartDto, result));
+        result.setRuleVersion(rules.getVersion());
+    }
+
+    private CartDto convertCartToDto(Cart cart, PriceCalculationResult result) {
+        CartDto dto = new CartDto();
+        List<CartItemDto> items = cart.getItems().stream()
+                .map(item -> {
+                    CartItemDto itemDto = new CartItemDto();
+                    itemDto.setId(item.getId());
+                    itemDto.setQuantity(item.getQuantity());
+                    itemDto.setUnitPrice(item.getUnitPrice());
+                    itemDto.setTotalPrice(item.getTotalPrice());
+                    return itemDto;
+                })
+                .collect(Collectors.toList());
+        dto.setItems(items);
+        dto.setSubtotal(result.getOriginalTotal());
+        return dto;
+    }
+}
@@ -0,0 +1,542 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.CartItemOperation;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.CartRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps active carts in Redis hashes when {@code app.cart.store} is {@code redis}. Each cart is one
+ * hash holding a {@code quantity:unitPrice} field per product plus a few metadata fields, and is
+ * mutated by scripts, so concurrent changes to the same cart never interleave. Changed carts are
+ * recorded in a dirty set and written back to the {@code cart}/{@code cart_items} tables in batches;
+ * a cart missing from Redis is loaded from the tables on first use.
+ */
+@Component
+@Slf4j
+public class HotCartStore {
+    public static final String REDIS = "redis";
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final String DIRTY_KEY = "cart:dirty";
+    private static final String ID_FIELD = "_id";
+    private static final String CREATED_FIELD = "_created";
+    private static final String UPDATED_FIELD = "_updated";
+    private static final String VERSION_FIELD = "_version";
+
+    // script results besides a new quantity
+    private static final long NOT_LOADED = -1;
+    private static final long INSUFFICIENT_STOCK = -2;
+    private static final long ITEM_NOT_FOUND = -3;
+
+    // ARGV: ttl millis, then field/value pairs; only fills a cart that is not already in Redis
+    private static final RedisScript<Long> LOAD = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "redis.call('HSET', KEYS[1], unpack(ARGV, 2)) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1", Long.class);
+
+    // ARGV: ttl, product id, quantity to add, stock, unit price, now, user id
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local current = redis.call('HGET', KEYS[1], ARGV[2]) " +
+            "local quantity = tonumber(ARGV[3]) " +
+            "if current then quantity = quantity + tonumber(string.match(current, '^(%d+):')) end " +
+            "if quantity > tonumber(ARGV[4]) then return -2 end " +
+            "redis.call('HSET', KEYS[1], ARGV[2], quantity .. ':' .. ARGV[5], '_updated', ARGV[6]) " +
+            "redis.call('HINCRBY', KEYS[1], '_version', 1) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "redis.call('SADD', KEYS[2], ARGV[7]) " +
+            "return quantity", Long.class);
+
+    // ARGV: ttl, product id, new quantity (0 or less removes), stock, now, user id
+    private static final RedisScript<Long> SET = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local current = redis.call('HGET', KEYS[1], ARGV[2]) " +
+            "if not current then return -3 end " +
+            "local quantity = tonumber(ARGV[3]) " +
+            "if quantity <= 0 then redis.call('HDEL', KEYS[1], ARGV[2]) " +
+            "else " +
+            "  if quantity > tonumber(ARGV[4]) then return -2 end " +
+            "  redis.call('HSET', KEYS[1], ARGV[2], quantity .. ':' .. string.match(current, ':(.+)$')) " +
+            "end " +
+            "redis.call('HSET', KEYS[1], '_updated', ARGV[5]) " +
+            "redis.call('HINCRBY', KEYS[1], '_version', 1) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "redis.call('SADD', KEYS[2], ARGV[6]) " +
+            "return math.max(quantity, 0)", Long.class);
+
+    // ARGV: ttl, now, user id, then action/product id/quantity/stock/unit price per operation; validates
+    // every operation before writing any, and returns {0, 0} or {error, 1-based index of the operation}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> BATCH = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {-1, 0} end " +
+            "local lines = {} " +
+            "for i = 0, (#ARGV - 3) / 5 - 1 do " +
+            "  local base = 4 + i * 5 " +
+            "  local action, id, quantity, stock = ARGV[base], ARGV[base + 1], tonumber(ARGV[base + 2]), tonumber(ARGV[base + 3]) " +
+            "  local line = lines[id] " +
+            "  if line == nil then " +
+            "    local current = redis.call('HGET', KEYS[1], id) " +
+            "    if current then line = {tonumber(string.match(current, '^(%d+):')), string.match(current, ':(.+)$')} " +
+            "    else line = false end " +
+            "  end " +
+            "  if action == 'ADD' then " +
+            "    if line then quantity = quantity + line[1] end " +
+            "    if quantity > stock then return {-2, i + 1} end " +
+            "    line = {quantity, ARGV[base + 4]} " +
+            "  else " +
+            "    if not line then return {-3, i + 1} end " +
+            "    if action == 'REMOVE' or quantity <= 0 then line = false " +
+            "    else " +
+            "      if quantity > stock then return {-2, i + 1} end " +
+            "      line = {quantity, line[2]} " +
+            "    end " +
+            "  end " +
+            "  lines[id] = line " +
+            "end " +
+            "for id, line in pairs(lines) do " +
+            "  if line then redis.call('HSET', KEYS[1], id, line[1] .. ':' .. line[2]) " +
+            "  else redis.call('HDEL', KEYS[1], id) end " +
+            "end " +
+            "redis.call('HSET', KEYS[1], '_updated', ARGV[2]) " +
+            "redis.call('HINCRBY', KEYS[1], '_version', 1) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "redis.call('SADD', KEYS[2], ARGV[3]) " +
+            "return {0, 0}", List.class);
+
+    // ARGV: ttl, now, user id, then product id/quantity pairs; takes the quantities out of the cart and
+    // leaves whatever was added on top of them
+    private static final RedisScript<Long> REMOVE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "for i = 4, #ARGV, 2 do " +
+            "  local current = redis.call('HGET', KEYS[1], ARGV[i]) " +
+            "  if current then " +
+            "    local quantity = tonumber(string.match(current, '^(%d+):')) - tonumber(ARGV[i + 1]) " +
+            "    if quantity > 0 then redis.call('HSET', KEYS[1], ARGV[i], quantity .. ':' .. string.match(current, ':(.+)$')) " +
+            "    else redis.call('HDEL', KEYS[1], ARGV[i]) end " +
+            "  end " +
+            "end " +
+            "redis.call('HSET', KEYS[1], '_updated', ARGV[2]) " +
+            "redis.call('HINCRBY', KEYS[1], '_version', 1) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "redis.call('SADD', KEYS[2], ARGV[3]) " +
+            "return 1", Long.class);
+
+    // ARGV: version written back, user id; a cart changed since that version stays dirty
+    private static final RedisScript<Long> CLEAN = new DefaultRedisScript<>(
+            "if redis.call('HGET', KEYS[1], '_version') ~= ARGV[1] then return 0 end " +
+            "redis.call('SREM', KEYS[2], ARGV[2]) " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartRepository cartRepository;
+    private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int flushBatchSize;
+
+    public HotCartStore(StringRedisTemplate redisTemplate, CartRepository cartRepository,
+                        ProductRepository productRepository, ProductCatalog productCatalog,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${app.cart.store:jpa}") String store,
+                        @Value("${app.cart.redis-ttl:24h}") Duration ttl,
+                        @Value("${app.cart.flush-batch-size:100}") int flushBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.cartRepository = cartRepository;
+        this.productRepository = productRepository;
+        this.productCatalog = productCatalog;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = REDIS.equalsIgnoreCase(store);
+        this.ttl = ttl;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a detached snapshot of the user's cart, loading it into Redis first if needed.
+     */
+    public Cart getCart(Long userId) {
+        Map<String, String> fields = hash(userId);
+        if (fields.isEmpty()) {
+            load(userId);
+            fields = hash(userId);
+        }
+        return toCart(fields);
+    }
+
+    /**
+     * Returns the version of the user's cart, loading it into Redis first if needed.
+     */
+    public Long version(Long userId) {
+        Object version = redisTemplate.opsForHash().get(KEY_PREFIX + userId, VERSION_FIELD);
+        if (version == null) {
+            load(userId);
+            version = redisTemplate.opsForHash().get(KEY_PREFIX + userId, VERSION_FIELD);
+        }
+        return version == null ? null : Long.valueOf((String) version);
+    }
+
+    public Cart addItem(Long userId, Product product, int quantity) {
+        long result = mutate(userId, ADD, String.valueOf(product.getId()), String.valueOf(quantity),
+                String.valueOf(product.getStockQuantity()), product.getPrice().toPlainString(), now(), String.valueOf(userId));
+        if (result == INSUFFICIENT_STOCK) {
+            throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
+        }
+        return getCart(userId);
+    }
+
+    /**
+     * Sets the quantity of a product already in the cart, removing it when {@code quantity} is 0 or less.
+     */
+    public Cart setQuantity(Long userId, Long productId, int quantity, int stock) {
+        long result = mutate(userId, SET, String.valueOf(productId), String.valueOf(quantity),
+                String.valueOf(stock), now(), String.valueOf(userId));
+        if (result == ITEM_NOT_FOUND) {
+            throw new RuntimeException("Item not found in cart");
+        } else if (result == INSUFFICIENT_STOCK) {
+            throw new RuntimeException("Insufficient stock. Available: " + stock);
+        }
+        return getCart(userId);
+    }
+
+    public Cart removeItem(Long userId, Long productId) {
+        long result = mutate(userId, SET, String.valueOf(productId), "0", "0", now(), String.valueOf(userId));
+        if (result == ITEM_NOT_FOUND) {
+            throw new RuntimeException("Cart item not found for product: " + productId);
+        }
+        return getCart(userId);
+    }
+
+    /**
+     * Applies the operations in one script, so they take effect together or, when one fails, not at all.
+     * {@code products} holds every product an add or a positive update refers to.
+     */
+    public Cart applyOperations(Long userId, List<CartItemOperation> operations, Map<Long, Product> products) {
+        List<String> keys = List.of(KEY_PREFIX + userId, DIRTY_KEY);
+        List<String> argv = new ArrayList<>(3 + operations.size() * 5);
+        argv.add(String.valueOf(ttl.toMillis()));
+        argv.add(now());
+        argv.add(String.valueOf(userId));
+        for (CartItemOperation operation : operations) {
+            Product product = products.get(operation.getProductId());
+            argv.add(operation.getAction().name());
+            argv.add(String.valueOf(operation.getProductId()));
+            argv.add(String.valueOf(operation.getQuantity() != null ? operation.getQuantity() : 0));
+            argv.add(String.valueOf(product != null ? product.getStockQuantity() : 0));
+            argv.add(product != null ? product.getPrice().toPlainString() : "0");
+        }
+
+        List<?> result = redisTemplate.execute(BATCH, keys, argv.toArray());
+        if (result != null && ((Long) result.get(0)) == NOT_LOADED) {
+            load(userId);
+            result = redisTemplate.execute(BATCH, keys, argv.toArray());
+        }
+
+        long code = result == null ? 0 : (Long) result.get(0);
+        if (code != 0) {
+            CartItemOperation failed = operations.get(((Long) result.get(1)).intValue() - 1);
+            if (code == INSUFFICIENT_STOCK) {
+                throw new RuntimeException("Insufficient stock. Available: "
+                        + products.get(failed.getProductId()).getStockQuantity());
+            } else if (failed.getAction() == CartItemOperation.Action.REMOVE) {
+                throw new RuntimeException("Cart item not found for product: " + failed.getProductId());
+            }
+            throw new RuntimeException("Item not found in cart");
+        }
+        return getCart(userId);
+    }
+
+    /**
+     * Drops the Redis copy of the cart, for when the tables were changed directly. The next access
+     * reloads it.
+     */
+    public void evict(Long userId) {
+        redisTemplate.delete(KEY_PREFIX + userId);
+        redisTemplate.opsForSet().remove(DIRTY_KEY, String.valueOf(userId));
+    }
+
+    /**
+     * Writes the user's cart to the tables now, joining the caller's transaction if there is one.
+     * The cart stays marked dirty until that transaction commits, so a rolled back write is retried
+     * by {@link #flushDirtyCarts()}. Returns the quantity of each product written, or null when Redis
+     * did not hold the cart.
+     */
+    public Map<Long, Integer> flush(Long userId) {
+        Map<String, String> fields = hash(userId);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            writeBack(userId, fields);
+            afterCommit(() -> markClean(userId, fields.get(VERSION_FIELD)));
+        });
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        fields.forEach((field, value) -> {
+            if (!field.startsWith("_")) {
+                quantities.put(Long.valueOf(field), Integer.parseInt(value.substring(0, value.indexOf(':'))));
+            }
+        });
+        return quantities;
+    }
+
+    /**
+     * Takes the given quantities out of the Redis copy once the surrounding transaction commits, or
+     * immediately when there is none, for a cart whose tables were cleared by that transaction. A cart
+     * Redis did not hold ({@code quantities} null) is dropped instead and reloaded on next access.
+     */
+    public void removeAfterCommit(Long userId, Map<Long, Integer> quantities) {
+        Runnable remove = () -> {
+            if (quantities == null) {
+                evict(userId);
+                return;
+            }
+            List<String> argv = new ArrayList<>(3 + quantities.size() * 2);
+            argv.add(String.valueOf(ttl.toMillis()));
+            argv.add(now());
+            argv.add(String.valueOf(userId));
+            quantities.forEach((productId, quantity) -> {
+                argv.add(String.valueOf(productId));
+                argv.add(String.valueOf(quantity));
+            });
+            try {
+                redisTemplate.execute(REMOVE, List.of(KEY_PREFIX + userId, DIRTY_KEY), argv.toArray());
+            } catch (Exception e) {
+                log.error("Failed to clear cart of user {} in Redis: {}", userId, e.getMessage());
+                evict(userId);
+            }
+        };
+        afterCommit(remove);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval:1000}")
+    public void flushDirtyCarts() {
+        if (!enabled) {
+            return;
+        }
+        List<String> userIds;
+        try {
+            userIds = redisTemplate.opsForSet().pop(DIRTY_KEY, flushBatchSize);
+        } catch (Exception e) {
+            log.error("Failed to read dirty carts: {}", e.getMessage());
+            return;
+        }
+        if (userIds == null) {
+            return;
+        }
+
+        for (String userId : userIds) {
+            try {
+                Map<String, String> fields = hash(Long.valueOf(userId));
+                if (!fields.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> writeBack(Long.valueOf(userId), fields));
+                }
+            } catch (Exception e) {
+                // keep it dirty so the next run retries
+                log.error("Failed to flush cart of user {}: {}", userId, e.getMessage());
+                redisTemplate.opsForSet().add(DIRTY_KEY, userId);
+            }
+        }
+    }
+
+    // a failure only leaves the cart dirty, and the flusher writes it back once more
+    private void markClean(Long userId, String version) {
+        if (version == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(CLEAN, List.of(KEY_PREFIX + userId, DIRTY_KEY), version, String.valueOf(userId));
+        } catch (Exception e) {
+            log.warn("Failed to mark cart of user {} clean: {}", userId, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private long mutate(Long userId, RedisScript<Long> script, String... args) {
+        List<String> keys = List.of(KEY_PREFIX + userId, DIRTY_KEY);
+        String[] argv = new String[args.length + 1];
+        argv[0] = String.valueOf(ttl.toMillis());
+        System.arraycopy(args, 0, argv, 1, args.length);
+
+        Long result = redisTemplate.execute(script, keys, (Object[]) argv);
+        if (result != null && result == NOT_LOADED) {
+            load(userId);
+            result = redisTemplate.execute(script, keys, (Object[]) argv);
+        }
+        return result == null ? 0 : result;
+    }
+
+    private void load(Long userId) {
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+
+        List<String> argv = new ArrayList<>();
+        argv.add(String.valueOf(ttl.toMillis()));
+        argv.add(ID_FIELD);
+        argv.add(String.valueOf(cart.getId()));
+        argv.add(CREATED_FIELD);
+        argv.add(String.valueOf(cart.getCreatedAt()));
+        argv.add(UPDATED_FIELD);
+        argv.add(String.valueOf(cart.getUpdatedAt()));
+        argv.add(VERSION_FIELD);
+        argv.add(String.valueOf(cart.getVersion() == null ? 0L : cart.getVersion()));
+        for (CartItem item : cart.getItems()) {
+            argv.add(String.valueOf(item.getProduct().getId()));
+            argv.add(item.getQuantity() + ":" + item.getUnitPrice().toPlainString());
+        }
+        redisTemplate.execute(LOAD, List.of(KEY_PREFIX + userId), argv.toArray());
+    }
+
+    private Map<String, String> hash(Long userId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(KEY_PREFIX + userId);
+        Map<String, String> fields = new HashMap<>(entries.size());
+        entries.forEach((field, value) -> fields.put((String) field, (String) value));
+        return fields;
+    }
+
+    // product details come from the catalog cache, so building a snapshot needs no database access
+    private Cart toCart(Map<String, String> fields) {
+        Cart cart = new Cart();
+        cart.setId(Long.valueOf(fields.get(ID_FIELD)));
+        cart.setCreatedAt(parseDateTime(fields.get(CREATED_FIELD)));
+        cart.setUpdatedAt(parseDateTime(fields.get(UPDATED_FIELD)));
+        cart.setVersion(fields.containsKey(VERSION_FIELD) ? Long.valueOf(fields.get(VERSION_FIELD)) : null);
+
+        long subtotal = 0L;
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (field.getKey().startsWith("_")) {
+                continue;
+            }
+            CartItem item = toItem(cart, Long.valueOf(field.getKey()), field.getValue());
+            cart.getItems().add(item);
+            subtotal = Math.addExact(subtotal, MinorUnitPricing.toMinorUnits(item.getTotalPrice()));
+        }
+        cart.getItems().sort((a, b) -> a.getProduct().getId().compareTo(b.getProduct().getId()));
+        cart.setTotalAmount(MinorUnitPricing.toBigDecimal(subtotal));
+        return cart;
+    }
+
+    private CartItem toItem(Cart cart, Long productId, String value) {
+        int separator = value.indexOf(':');
+        int quantity = Integer.parseInt(value.substring(0, separator));
+        BigDecimal unitPrice = new BigDecimal(value.substring(separator + 1));
+
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(toProduct(productCatalog.findById(productId)));
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        item.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+        return item;
+    }
+
+    // makes the tables match the Redis copy of the cart, unless they already hold its version or a later
+    // one, e.g. because a checkout cleared the cart after the copy was read
+    private void writeBack(Long userId, Map<String, String> fields) {
+        long version = Long.parseLong(fields.getOrDefault(VERSION_FIELD, "0"));
+        if (cartRepository.advanceVersion(Long.valueOf(fields.get(ID_FIELD)), version) == 0) {
+            return;
+        }
+
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+
+        Map<Long, CartItem> existing = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            existing.put(item.getProduct().getId(), item);
+        }
+
+        long subtotal = 0L;
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (field.getKey().startsWith("_")) {
+                continue;
+            }
+            Long productId = Long.valueOf(field.getKey());
+            int separator = field.getValue().indexOf(':');
+            int quantity = Integer.parseInt(field.getValue().substring(0, separator));
+            BigDecimal unitPrice = new BigDecimal(field.getValue().substring(separator + 1));
+
+            CartItem item = existing.remove(productId);
+            if (item == null) {
+                item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(productRepository.getReferenceById(productId));
+                cart.getItems().add(item);
+            }
+            item.setQuantity(quantity);
+            item.setUnitPrice(unitPrice);
+            item.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+            subtotal = Math.addExact(subtotal, MinorUnitPricing.toMinorUnits(item.getTotalPrice()));
+        }
+        // orphan removal deletes the rows of products no longer in the cart
+        cart.getItems().removeAll(existing.values());
+
+        cart.setTotalAmount(MinorUnitPricing.toBigDecimal(subtotal));
+        cart.setUpdatedAt(LocalDateTime.now());
+        cart.setVersion(version);
+        cartRepository.save(cart);
+    }
+
+    static Product toProduct(ProductDto dto) {
+        Product product = new Product();
+        product.setId(dto.getId());
+        product.setName(dto.getName());
+        product.setDescription(dto.getDescription());
+        product.setPrice(dto.getPrice());
+        product.setStockQuantity(dto.getStockQuantity());
+        product.setCategory(dto.getCategory());
+        product.setBrand(dto.getBrand());
+        product.setImageUrl(dto.getImageUrl());
+        product.setActive(dto.getActive());
+        product.setCreatedAt(dto.getCreatedAt());
+        product.setUpdatedAt(dto.getUpdatedAt());
+        return product;
+    }
+
+    private static String now() {
+        return LocalDateTime.now().toString();
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        return value == null || value.equals("null") ? null : LocalDateTime.parse(value);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+/**
+ * Thrown when a product has less stock than a change asks for. Its own type, so callers that still
+ * commit, e.g. to record a failed order, can tell it from errors that must roll back.
+ */
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
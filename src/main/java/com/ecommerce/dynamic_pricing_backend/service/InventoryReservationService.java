@@ -0,0 +1,279 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.entity.OrderItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Short-lived holds on product stock between checkout and payment. A hold succeeds only if every
+ * line fits into the stock not already held by other checkouts, so a sold-out product fails at the
+ * start of checkout instead of at the stock update. Holds are released when the order is paid (its
+ * stock is then taken for real), cancelled or failed, or when they expire.
+ * <p>
+ * Held quantities are per-product counters kept in memory under lock stripes. With
+ * {@code app.inventory.redis-sync} they are kept in Redis and changed by scripts, so holds are
+ * shared by every node; if Redis is unavailable a hold falls back to the local counters.
+ */
+@Service
+@Slf4j
+public class InventoryReservationService {
+    // hash tag keeps every key in one Redis Cluster slot, as the scripts touch several of them
+    private static final String HELD_KEY = "{inventory}:held";
+    private static final String EXPIRIES_KEY = "{inventory}:expiries";
+    private static final String HOLD_KEY_PREFIX = "{inventory}:hold:";
+    private static final int SWEEP_BATCH_SIZE = 100;
+    // returned instead of a product id when the hold was placed by an earlier call
+    private static final long ALREADY_HELD = -1L;
+
+    // KEYS: held counters, expiries, the hold; ARGV: hold id, expiry millis, then product id/quantity/stock
+    // per line. Returns 0, -1 if the hold exists already, or the 1-based line that does not fit without
+    // holding anything
+    private static final RedisScript<Long> HOLD = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[3]) == 1 then return -1 end " +
+            "for i = 3, #ARGV, 3 do " +
+            "  local held = tonumber(redis.call('HGET', KEYS[1], ARGV[i]) or '0') " +
+            "  if held + tonumber(ARGV[i + 1]) > tonumber(ARGV[i + 2]) then return i / 3 end " +
+            "end " +
+            "for i = 3, #ARGV, 3 do " +
+            "  redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) " +
+            "  redis.call('HSET', KEYS[3], ARGV[i], ARGV[i + 1]) " +
+            "end " +
+            "redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1]) " +
+            "return 0", Long.class);
+
+    // KEYS: held counters, expiries, the hold; ARGV: hold id. Returns 1 if the hold existed
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "local lines = redis.call('HGETALL', KEYS[3]) " +
+            "redis.call('ZREM', KEYS[2], ARGV[1]) " +
+            "if #lines == 0 then return 0 end " +
+            "for i = 1, #lines, 2 do " +
+            "  if redis.call('HINCRBY', KEYS[1], lines[i], -tonumber(lines[i + 1])) <= 0 then " +
+            "    redis.call('HDEL', KEYS[1], lines[i]) " +
+            "  end " +
+            "end " +
+            "redis.call('DEL', KEYS[3]) " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration holdTtl;
+    private final boolean redisSync;
+
+    private final Map<Long, Integer> held = new ConcurrentHashMap<>(); // changed under the product's stripe
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+
+    public InventoryReservationService(StringRedisTemplate redisTemplate,
+                                       @Value("${app.inventory.hold-ttl:15m}") Duration holdTtl,
+                                       @Value("${app.inventory.redis-sync:false}") boolean redisSync,
+                                       @Value("${app.inventory.stripes:64}") int stripes) {
+        this.redisTemplate = redisTemplate;
+        this.holdTtl = holdTtl;
+        this.redisSync = redisSync;
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes))];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Holds the stock of every order line under {@code holdId}, checked against each product's stock
+     * as loaded with the line. Inside a transaction the hold is released again if the transaction
+     * rolls back. Placing a hold that exists already does nothing, and leaves releasing it to the
+     * call that placed it.
+     *
+     * @throws RuntimeException naming the first product whose unheld stock is too low; nothing is held then
+     */
+    public void hold(String holdId, Collection<OrderItem> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            products.put(item.getProduct().getId(), item.getProduct());
+        }
+        long expiresAt = System.currentTimeMillis() + holdTtl.toMillis();
+
+        Long rejected = redisSync ? holdShared(holdId, quantities, products, expiresAt)
+                : holdLocal(holdId, quantities, products, expiresAt);
+        if (rejected != null && rejected == ALREADY_HELD) {
+            return;
+        } else if (rejected != null) {
+            throw new RuntimeException("Insufficient stock for product: " + products.get(rejected).getName());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(holdId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Releases the hold once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void releaseAfterCommit(String holdId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(holdId);
+                }
+            });
+        } else {
+            release(holdId);
+        }
+    }
+
+    /**
+     * Releases the hold, returning whether it was still held. Safe to call for unknown or expired holds.
+     */
+    public boolean release(String holdId) {
+        // a hold placed while Redis was down lives locally, so both stores are checked
+        boolean released = releaseLocal(holdId);
+        if (redisSync) {
+            try {
+                Long existed = redisTemplate.execute(RELEASE, keys(holdId), holdId);
+                released |= existed != null && existed == 1L;
+            } catch (Exception e) {
+                // the hold then expires on its own
+                log.error("Failed to release stock hold {}: {}", holdId, e.getMessage());
+            }
+        }
+        return released;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.sweep-interval:10000}")
+    public void releaseExpiredHolds() {
+        long now = System.currentTimeMillis();
+        holds.forEach((holdId, hold) -> {
+            if (hold.expiresAt <= now) {
+                releaseLocal(holdId);
+            }
+        });
+
+        if (redisSync) {
+            try {
+                Set<String> expired = redisTemplate.opsForZSet().rangeByScore(EXPIRIES_KEY, 0, now, 0, SWEEP_BATCH_SIZE);
+                if (expired != null) {
+                    expired.forEach(this::release);
+                }
+            } catch (Exception e) {
+                log.error("Failed to release expired stock holds: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Long holdShared(String holdId, SortedMap<Long, Integer> quantities, Map<Long, Product> products,
+                            long expiresAt) {
+        List<String> argv = new ArrayList<>(2 + quantities.size() * 3);
+        argv.add(holdId);
+        argv.add(String.valueOf(expiresAt));
+        quantities.forEach((productId, quantity) -> {
+            argv.add(String.valueOf(productId));
+            argv.add(String.valueOf(quantity));
+            argv.add(String.valueOf(products.get(productId).getStockQuantity()));
+        });
+
+        try {
+            Long line = redisTemplate.execute(HOLD, keys(holdId), argv.toArray());
+            if (line == null || line == 0L) {
+                return null;
+            } else if (line == ALREADY_HELD) {
+                return ALREADY_HELD;
+            }
+            return new ArrayList<>(quantities.keySet()).get(line.intValue() - 1);
+        } catch (Exception e) {
+            log.warn("Stock hold {} fell back to the local counters: {}", holdId, e.getMessage());
+            return holdLocal(holdId, quantities, products, expiresAt);
+        }
+    }
+
+    // returns the product that does not fit, ALREADY_HELD, or null once every line is held
+    private Long holdLocal(String holdId, SortedMap<Long, Integer> quantities, Map<Long, Product> products,
+                           long expiresAt) {
+        // stripes are always locked in index order, so two multi-product holds cannot deadlock
+        Set<Integer> locked = new TreeSet<>();
+        for (Long productId : quantities.keySet()) {
+            locked.add(stripeOf(productId));
+        }
+        locked.forEach(stripe -> stripes[stripe].lock());
+        try {
+            if (holds.containsKey(holdId)) {
+                return ALREADY_HELD;
+            }
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                int stock = products.get(line.getKey()).getStockQuantity();
+                if (held.getOrDefault(line.getKey(), 0) + line.getValue() > stock) {
+                    return line.getKey();
+                }
+            }
+            quantities.forEach((productId, quantity) -> held.merge(productId, quantity, Integer::sum));
+            holds.put(holdId, new Hold(new LinkedHashMap<>(quantities), expiresAt));
+            return null;
+        } finally {
+            locked.forEach(stripe -> stripes[stripe].unlock());
+        }
+    }
+
+    private boolean releaseLocal(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        hold.quantities.forEach((productId, quantity) -> {
+            ReentrantLock stripe = stripes[stripeOf(productId)];
+            stripe.lock();
+            try {
+                held.computeIfPresent(productId, (id, total) -> total - quantity > 0 ? total - quantity : null);
+            } finally {
+                stripe.unlock();
+            }
+        });
+        return true;
+    }
+
+    private static List<String> keys(String holdId) {
+        return List.of(HELD_KEY, EXPIRIES_KEY, HOLD_KEY_PREFIX + holdId);
+    }
+
+    private int stripeOf(Long productId) {
+        int hash = productId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private static final class Hold {
+        private final Map<Long, Integer> quantities;
+        private final long expiresAt;
+
+        private Hold(Map<Long, Integer> quantities, long expiresAt) {
+            this.quantities = quantities;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
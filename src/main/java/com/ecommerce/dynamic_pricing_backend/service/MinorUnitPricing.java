@@ -0,0 +1,103 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point pricing kernel working on money held as {@code long} minor units (cents) and
+ * percentages held as basis points (hundredths of a percent, so 12.5% is 1250).
+ * Intermediate results are exact; every rounding step is explicit and rounds half-up (away
+ * from zero) to a whole minor unit, matching {@code setScale(2, RoundingMode.HALF_UP)}.
+ * Convert with {@link #toMinorUnits} and {@link #toBigDecimal} only at the DTO/persistence boundary.
+ */
+public final class MinorUnitPricing {
+    public static final int MONEY_SCALE = 2;
+
+    // marks an absent minimum order amount or maximum discount
+    public static final long NO_LIMIT = -1L;
+
+    private static final long BASIS_POINTS_PER_WHOLE = 10_000L;
+
+    private MinorUnitPricing() {
+    }
+
+    /**
+     * Converts an amount to minor units. Throws {@link ArithmeticException} if the amount has
+     * more than {@value #MONEY_SCALE} decimals or does not fit in a long, rather than rounding silently.
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(MONEY_SCALE).longValueExact();
+    }
+
+    public static long toMinorUnitsOrNoLimit(BigDecimal amount) {
+        return amount == null ? NO_LIMIT : toMinorUnits(amount);
+    }
+
+    /**
+     * Converts a percentage such as {@code 12.50} to basis points. Throws {@link ArithmeticException}
+     * if the percentage has more than two decimals.
+     */
+    public static long toBasisPoints(BigDecimal percentage) {
+        return percentage.movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MONEY_SCALE);
+    }
+
+    public static long lineTotal(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, (long) quantity);
+    }
+
+    /**
+     * Price after a percentage discount: {@code price * (1 - basisPoints / 10000)}, rounded half-up
+     * once at the end. Like the BigDecimal path, a percentage above 100 yields a negative price.
+     */
+    public static long applyPercentageOff(long price, long basisPoints) {
+        return divideHalfUp(Math.multiplyExact(price, BASIS_POINTS_PER_WHOLE - basisPoints), BASIS_POINTS_PER_WHOLE);
+    }
+
+    /**
+     * Price after a fixed amount discount, never below zero.
+     */
+    public static long applyFixedAmountOff(long price, long amount) {
+        return Math.max(Math.subtractExact(price, amount), 0L);
+    }
+
+    /**
+     * Discount granted by a promotion on a cart total. Returns zero below {@code minOrderAmount};
+     * otherwise the percentage of the total (or the fixed amount), capped at {@code maxDiscountAmount}.
+     * The cap is compared against the exact discount and only the result is rounded.
+     */
+    public static long promotionDiscount(long cartTotal, boolean percentage, long discountValue,
+                                         long minOrderAmount, long maxDiscountAmount) {
+        if (minOrderAmount != NO_LIMIT && cartTotal < minOrderAmount) {
+            return 0L;
+        }
+
+        if (percentage) {
+            // exact discount in 1/10000 of a minor unit
+            long scaledDiscount = Math.multiplyExact(cartTotal, discountValue);
+            if (maxDiscountAmount != NO_LIMIT &&
+                    scaledDiscount > Math.multiplyExact(maxDiscountAmount, BASIS_POINTS_PER_WHOLE)) {
+                return maxDiscountAmount;
+            }
+            return divideHalfUp(scaledDiscount, BASIS_POINTS_PER_WHOLE);
+        }
+
+        if (maxDiscountAmount != NO_LIMIT && discountValue > maxDiscountAmount) {
+            return maxDiscountAmount;
+        }
+        return discountValue;
+    }
+
+    /**
+     * Divides by a positive divisor, rounding half away from zero.
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long half = divisor / 2;
+        if (dividend >= 0) {
+            return Math.addExact(dividend, half) / divisor;
+        }
+        return -(Math.addExact(-dividend, half) / divisor);
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates DRL into plain Java cart rules for the {@link NativePricingEngine}. Only the rule shapes
+ * the cart discounts use are understood: a rule matching {@code CartDto()}, {@code CartDto(subtotal >= n)}
+ * or {@code CartDto(items.size() >= n)} that adds a fixed amount or a share of the subtotal and names
+ * the discount. A rule matching any other fact type is dropped, since pricing only inserts the cart and
+ * the result and such a rule never fires. Anything else makes the whole rule set untranslatable.
+ */
+final class NativeCartRules {
+    private static final Pattern RULE = Pattern.compile(
+            "^\\s*rule\\s+\"[^\"]+\"\\s*$(.*?)^\\s*when\\s*$(.*?)^\\s*then\\s*$(.*?)^\\s*end\\s*$",
+            Pattern.MULTILINE | Pattern.DOTALL);
+    private static final Pattern OUTSIDE_RULES = Pattern.compile("(package|import)\\s+[\\w.*]+;?|//.*");
+    private static final Pattern FACT = Pattern.compile("(\\$\\w+)\\s*:\\s*(\\w+)\\s*\\((.*)\\)");
+    private static final Pattern MIN_SUBTOTAL = Pattern.compile("subtotal\\s*>=\\s*(\\d+(?:\\.\\d+)?)");
+    private static final Pattern MIN_LINE_COUNT = Pattern.compile("items\\.size\\(\\)\\s*>=\\s*(\\d+)");
+    private static final Pattern AMOUNT = Pattern.compile("new BigDecimal\\(\"(\\d+(?:\\.\\d+)?)\"\\)");
+    private static final Pattern LOCAL = Pattern.compile("BigDecimal\\s+(\\w+)\\s*=\\s*(.+);");
+
+    private static final String CART_FACT = "CartDto";
+    private static final String RESULT_FACT = "PriceCalculationResult";
+
+    private NativeCartRules() {
+    }
+
+    /**
+     * Returns the rules of the given DRL files in the order Drools fires them, or null when any of them
+     * uses something the native engine does not support.
+     */
+    static List<Rule> translate(Collection<String> drls) {
+        List<Rule> rules = new ArrayList<>();
+        for (String drl : drls) {
+            if (drl == null || !translate(drl, rules)) {
+                return null;
+            }
+        }
+        return List.copyOf(rules);
+    }
+
+    private static boolean translate(String drl, List<Rule> rules) {
+        Matcher matcher = RULE.matcher(drl);
+        StringBuilder outside = new StringBuilder();
+        int end = 0;
+        while (matcher.find()) {
+            outside.append(drl, end, matcher.start()).append('\n');
+            end = matcher.end();
+            // attributes such as salience change the firing order
+            if (!matcher.group(1).isBlank()) {
+                return false;
+            }
+            Rule rule = translateRule(matcher.group(2), matcher.group(3));
+            if (rule == null) {
+                return false;
+            }
+            if (rule != Rule.NEVER_FIRES) {
+                rules.add(rule);
+            }
+        }
+        outside.append(drl.substring(end));
+
+        // functions, globals, declarations or rules the pattern did not recognise
+        for (String line : outside.toString().split("\n")) {
+            if (!line.isBlank() && !OUTSIDE_RULES.matcher(line.trim()).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Rule translateRule(String when, String then) {
+        String cart = null;
+        String result = null;
+        Condition condition = Condition.ALWAYS;
+        BigDecimal threshold = BigDecimal.ZERO;
+
+        List<String> patterns = lines(when);
+        for (String line : patterns) {
+            Matcher fact = FACT.matcher(line);
+            if (fact.matches() && !CART_FACT.equals(fact.group(2)) && !RESULT_FACT.equals(fact.group(2))) {
+                return Rule.NEVER_FIRES;
+            }
+        }
+
+        for (String line : patterns) {
+            Matcher fact = FACT.matcher(line);
+            if (!fact.matches()) {
+                return null;
+            }
+            String constraint = fact.group(3).trim();
+            if (CART_FACT.equals(fact.group(2)) && cart == null) {
+                cart = fact.group(1);
+                Matcher subtotal = MIN_SUBTOTAL.matcher(constraint);
+                Matcher lineCount = MIN_LINE_COUNT.matcher(constraint);
+                if (subtotal.matches()) {
+                    condition = Condition.MIN_SUBTOTAL;
+                    threshold = new BigDecimal(subtotal.group(1));
+                } else if (lineCount.matches()) {
+                    condition = Condition.MIN_LINE_COUNT;
+                    threshold = new BigDecimal(lineCount.group(1));
+                } else if (!constraint.isEmpty()) {
+                    return null;
+                }
+            } else if (RESULT_FACT.equals(fact.group(2)) && result == null && constraint.isEmpty()) {
+                result = fact.group(1);
+            } else {
+                return null;
+            }
+        }
+        if (result == null) {
+            return null;
+        }
+
+        String discountName = null;
+        Discount discount = null;
+        String local = null;
+        Discount localDiscount = null;
+        Pattern addToTotal = Pattern.compile(Pattern.quote(result) + "\\.setDiscountAmount\\(" + Pattern.quote(result)
+                + "\\.getDiscountAmount\\(\\)\\.add\\((.+)\\)\\);");
+        Pattern addName = Pattern.compile(Pattern.quote(result) + "\\.getAppliedDiscounts\\(\\)\\.add\\(\"([^\"]*)\"\\);");
+        Pattern update = Pattern.compile("update\\(" + Pattern.quote(result) + "\\);");
+
+        for (String line : lines(then)) {
+            Matcher localMatcher = LOCAL.matcher(line);
+            Matcher addMatcher = addToTotal.matcher(line);
+            Matcher nameMatcher = addName.matcher(line);
+            if (localMatcher.matches() && local == null && discount == null) {
+                local = localMatcher.group(1);
+                localDiscount = discount(localMatcher.group(2), cart);
+                if (localDiscount == null) {
+                    return null;
+                }
+            } else if (addMatcher.matches() && discount == null) {
+                discount = addMatcher.group(1).equals(local) ? localDiscount : discount(addMatcher.group(1), cart);
+                if (discount == null) {
+                    return null;
+                }
+            } else if (nameMatcher.matches() && discountName == null) {
+                discountName = nameMatcher.group(1);
+            } else if (!update.matcher(line).matches()) {
+                return null;
+            }
+        }
+        if (discountName == null || discount == null) {
+            return null;
+        }
+        return new Rule(condition, threshold, discount.percentage, discount.value, discountName);
+    }
+
+    // a fixed amount, or a share of the subtotal
+    private static Discount discount(String expression, String cart) {
+        Matcher amount = AMOUNT.matcher(expression);
+        if (amount.matches()) {
+            return new Discount(false, new BigDecimal(amount.group(1)));
+        }
+        if (cart == null) {
+            return null;
+        }
+        String prefix = cart + ".getSubtotal().multiply(";
+        if (expression.startsWith(prefix) && expression.endsWith(")")) {
+            amount = AMOUNT.matcher(expression.substring(prefix.length(), expression.length() - 1));
+            if (amount.matches()) {
+                return new Discount(true, new BigDecimal(amount.group(1)));
+            }
+        }
+        return null;
+    }
+
+    private static List<String> lines(String block) {
+        List<String> lines = new ArrayList<>();
+        for (String line : block.split("\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("//")) {
+                lines.add(trimmed);
+            }
+        }
+        return lines;
+    }
+
+    enum Condition {
+        ALWAYS,
+        MIN_SUBTOTAL,
+        MIN_LINE_COUNT
+    }
+
+    private static final class Discount {
+        private final boolean percentage;
+        private final BigDecimal value; // rate for percentage discounts, amount otherwise
+
+        private Discount(boolean percentage, BigDecimal value) {
+            this.percentage = percentage;
+            this.value = value;
+        }
+    }
+
+    static final class Rule {
+        private static final Rule NEVER_FIRES = new Rule(Condition.ALWAYS, BigDecimal.ZERO, false, BigDecimal.ZERO, null);
+
+        private final Condition condition;
+        private final BigDecimal threshold;
+        private final boolean percentage;
+        private final BigDecimal discount; // rate for percentage rules, amount otherwise
+        private final String discountName;
+
+        Rule(Condition condition, BigDecimal threshold, boolean percentage, BigDecimal discount,
+             String discountName) {
+            this.condition = condition;
+            this.threshold = threshold;
+            this.percentage = percentage;
+            this.discount = discount;
+            this.discountName = discountName;
+        }
+
+        void apply(BigDecimal subtotal, int lineCount, PriceCalculationResult result) {
+            BigDecimal value = condition == Condition.MIN_SUBTOTAL ? subtotal : BigDecimal.valueOf(lineCount);
+            if (condition == Condition.ALWAYS || value.compareTo(threshold) >= 0) {
+                // same BigDecimal arithmetic as the DRL consequences, so both engines return equal amounts
+                BigDecimal amount = percentage ? subtotal.multiply(discount) : discount;
+                result.setDiscountAmount(result.getDiscountAmount().add(amount));
+                result.getAppliedDiscounts().add(discountName);
+            }
+        }
+    }
+}
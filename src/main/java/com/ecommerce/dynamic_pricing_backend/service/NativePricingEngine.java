@@ -0,0 +1,69 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plain Java evaluation of the active rule set, for nodes where the Drools session overhead matters.
+ * Every version is translated by {@link NativeCartRules} when it is compiled; a version using more
+ * than the translation supports is priced by the {@link DroolsPricingEngine} instead, which is
+ * reported on the result, logged once per version and counted.
+ */
+@Component
+@Slf4j
+public class NativePricingEngine implements PricingEngine {
+    public static final String NAME = "native";
+
+    private final DroolsPricingEngine droolsPricingEngine;
+    private final LongAdder droolsFallbacks = new LongAdder();
+    private final AtomicLong lastReportedVersion = new AtomicLong(-1);
+
+    public NativePricingEngine(DroolsPricingEngine droolsPricingEngine) {
+        this.droolsPricingEngine = droolsPricingEngine;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long getVersion() {
+        return droolsPricingEngine.getVersion();
+    }
+
+    @Override
+    public void applyDiscounts(Cart cart, PriceCalculationResult result) {
+        CompiledRuleSet rules = droolsPricingEngine.getActiveRules();
+        List<NativeCartRules.Rule> nativeRules = rules.getNativeRules();
+        if (nativeRules == null) {
+            droolsFallbacks.increment();
+            long reported = lastReportedVersion.getAndSet(rules.getVersion());
+            if (reported != rules.getVersion()) {
+                log.warn("Pricing rule version {} cannot be evaluated natively, pricing with Drools", rules.getVersion());
+            }
+            droolsPricingEngine.applyDiscounts(rules, cart, result);
+            result.setPricingEngine(DroolsPricingEngine.NAME);
+            return;
+        }
+
+        int lineCount = cart.getItems().size();
+        for (NativeCartRules.Rule rule : nativeRules) {
+            rule.apply(result.getOriginalTotal(), lineCount, result);
+        }
+        result.setRuleVersion(rules.getVersion());
+    }
+
+    /**
+     * Number of carts handed to Drools because the active rule version could not be translated.
+     */
+    public long getDroolsFallbackCount() {
+        return droolsFallbacks.sum();
+    }
+}
@@ -15,8 +15,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,8 +33,12 @@ public class OrderService {
     private final PricingService pricingService;
     private final PaymentService paymentService;
     private final PromotionService promotionService;
+    private final InventoryReservationService inventoryReservationService;
 
     public OrderDto createOrder(Long userId, CheckoutRequest request) {
+        // a cart held in Redis is written through first, so the order sees its latest items
+        cartService.flushCart(userId);
+
         Cart cart = cartRepository.findByUserIdWithItems(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
 
@@ -53,30 +59,34 @@ public class OrderService {
         order.setShippingAddress(request.getShippingAddress());
         order.setPaymentMethod(request.getPaymentMethod());
         order.setCreatedAt(LocalDateTime.now());
+        // order numbers can collide, and the hold of one order must never be released by another
+        order.setStockHoldId(UUID.randomUUID().toString());
 
-        Order savedOrder = orderRepository.save(order);
-
+        Map<Long, Integer> orderedQuantities = new HashMap<>();
         for (CartItem cartItem : cart.getItems()) {
+            orderedQuantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
+            orderItem.setOrder(order);
             orderItem.setProduct(cartItem.getProduct());
             orderItem.setQuantity(cartItem.getQuantity());
             orderItem.setUnitPrice(cartItem.getUnitPrice());
             orderItem.setTotalPrice(cartItem.getTotalPrice());
+            order.getOrderItems().add(orderItem);
+        }
 
+        // stock is held, not taken, until PayHere confirms the payment; a line whose stock is
+        // already held by other checkouts fails the order before anything is inserted
+        inventoryReservationService.hold(order.getStockHoldId(), order.getOrderItems());
 
-            savedOrder.getOrderItems().add(orderItem);
-            orderItemRepository.save(orderItem);
-            productService.updateStock(cartItem.getProduct().getId(), cartItem.getQuantity());
-        }
+        Order savedOrder = orderRepository.save(order);
 
         // tracking promotion usage if applicable
         if (request.getPromotionCode() != null && !request.getPromotionCode().trim().isEmpty()) {
             promotionService.trackPromotionUsage(userId, request.getPromotionCode(), savedOrder.getId());
         }
 
-        // clearing cart after successful order
-        cartService.clearCart(userId);
+        // clearing the ordered lines from the cart after successful order
+        cartService.clearCart(userId, orderedQuantities);
 
         System.out.println("before process payment");
         // Generate PayHere checkout params
@@ -89,6 +99,42 @@ public class OrderService {
         return dto;
     }
 
+    /**
+     * Records the PayHere result for a pending order. A successful payment takes the stock its hold
+     * kept aside; if the hold had expired and the stock was sold meanwhile, the order fails and the
+     * payment is refunded. Repeated notifications for a settled order only update the payment id.
+     * Orders placed before stock holds had their stock taken at checkout, so a failed payment gives
+     * it back and a successful one takes nothing.
+     */
+    public void recordPaymentResult(String orderNumber, String paymentId, boolean paid) {
+        Order order = orderRepository.findByOrderNumber(orderNumber)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+
+        order.setPaymentId(paymentId);
+        if (order.getStatus() == Order.OrderStatus.PENDING) {
+            boolean stockTaken = order.getStockHoldId() == null;
+            if (!paid) {
+                order.setStatus(Order.OrderStatus.FAILED);
+                if (stockTaken) {
+                    productService.restoreStock(order.getOrderItems());
+                }
+            } else if (stockTaken) {
+                order.setStatus(Order.OrderStatus.CONFIRMED);
+            } else {
+                try {
+                    productService.decrementStock(order.getOrderItems());
+                    order.setStatus(Order.OrderStatus.CONFIRMED);
+                } catch (InsufficientStockException e) {
+                    order.setStatus(Order.OrderStatus.FAILED);
+                    paymentService.processRefund(paymentId, order.getTotalAmount());
+                }
+            }
+            releaseStockHold(order);
+        }
+        order.setUpdatedAt(LocalDateTime.now());
+        orderRepository.save(order);
+    }
+
     public OrderDto getOrderById(Long orderId, Long userId) {
         Order order = orderRepository.findByIdWithItems(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
@@ -169,9 +215,11 @@ public class OrderService {
             throw new RuntimeException("Cannot cancel order in status: " + order.getStatus());
         }
 
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
+        if (order.getStatus() == Order.OrderStatus.PENDING && order.getStockHoldId() != null) {
+            // an unpaid order only holds its stock; one placed before holds had it taken at checkout
+            releaseStockHold(order);
+        } else {
+            productService.restoreStock(order.getOrderItems());
         }
 
         if (order.getPaymentId() != null) {
@@ -185,6 +233,12 @@ public class OrderService {
         return convertToDto(cancelledOrder);
     }
 
+    private void releaseStockHold(Order order) {
+        if (order.getStockHoldId() != null) {
+            inventoryReservationService.releaseAfterCommit(order.getStockHoldId());
+        }
+    }
+
     private String generateOrderNumber() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         String randomSuffix = String.valueOf((int) (Math.random() * 1000));
@@ -0,0 +1,23 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+
+/**
+ * Applies the automatic cart discounts. Implementations add to {@code result.discountAmount} and
+ * {@code result.appliedDiscounts}; {@code result.originalTotal} already holds the cart subtotal.
+ */
+public interface PricingEngine {
+
+    /**
+     * Name used to select the engine, via {@code app.pricing.engine} or per request.
+     */
+    String getName();
+
+    /**
+     * Version of the rules the engine currently evaluates, changed whenever they change.
+     */
+    long getVersion();
+
+    void applyDiscounts(Cart cart, PriceCalculationResult result);
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of the available {@link PricingEngine}s. The deployment default is set with
+ * {@code app.pricing.engine}; callers may name another engine per request.
+ */
+@Component
+public class PricingEngines {
+    private final Map<String, PricingEngine> engines = new LinkedHashMap<>();
+    private final PricingEngine defaultEngine;
+
+    public PricingEngines(List<PricingEngine> engines, @Value("${app.pricing.engine:drools}") String defaultEngine) {
+        for (PricingEngine engine : engines) {
+            this.engines.put(engine.getName(), engine);
+        }
+        this.defaultEngine = get(defaultEngine);
+    }
+
+    public PricingEngine getDefault() {
+        return defaultEngine;
+    }
+
+    /**
+     * Returns the named engine, or the default one when {@code name} is null or blank.
+     */
+    public PricingEngine get(String name) {
+        if (name == null || name.isBlank()) {
+            return defaultEngine;
+        }
+        PricingEngine engine = engines.get(name);
+        if (engine == null) {
+            throw new RuntimeException("Unknown pricing engine: " + name + ". Available: " + engines.keySet());
+        }
+        return engine;
+    }
+
+    public Set<String> getNames() {
+        return engines.keySet();
+    }
+}
@@ -0,0 +1,257 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.config.DroolsConfig;
+import com.ecommerce.dynamic_pricing_backend.dto.CreatePricingRuleVersionRequest;
+import com.ecommerce.dynamic_pricing_backend.dto.PricingRuleVersionDto;
+import com.ecommerce.dynamic_pricing_backend.entity.PricingRuleVersion;
+import com.ecommerce.dynamic_pricing_backend.repository.PricingRuleVersionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.runtime.KieContainer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Manages versioned DRL rule sets. New versions are compiled into a fresh KieBase on a background
+ * thread and published with an atomic reference swap, so pricing never pauses for a compilation.
+ * Version 0 is the rule set bundled on the classpath, used while no stored version is active; it
+ * can be activated like any other version to roll back to the shipped rules.
+ */
+@Service
+@Slf4j
+public class PricingRuleService {
+    private static final String RULES_GROUP_ID = "com.ecommerce";
+    private static final String RULES_ARTIFACT_ID = "pricing-rules";
+    private static final int MAX_ERROR_LENGTH = 4000;
+    private static final long BUNDLED_VERSION = 0L;
+
+    private final PricingRuleVersionRepository pricingRuleVersionRepository;
+    private final CompiledRuleSet bundledRules;
+    private final AtomicReference<CompiledRuleSet> activeRules;
+    private final ExecutorService compiler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "drl-compiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PricingRuleService(PricingRuleVersionRepository pricingRuleVersionRepository, KieContainer kieContainer) {
+        this.pricingRuleVersionRepository = pricingRuleVersionRepository;
+        this.bundledRules = new CompiledRuleSet(BUNDLED_VERSION, kieContainer.newStatelessKieSession(), null,
+                NativeCartRules.translate(readBundledRules()));
+        this.activeRules = new AtomicReference<>(bundledRules);
+    }
+
+    public CompiledRuleSet getActiveRules() {
+        return activeRules.get();
+    }
+
+    public List<PricingRuleVersionDto> getAllVersions() {
+        return pricingRuleVersionRepository.findAllByOrderByIdDesc().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    public PricingRuleVersionDto getVersion(Long version) {
+        return version == BUNDLED_VERSION ? bundledVersionDto() : convertToDto(findVersion(version));
+    }
+
+    public PricingRuleVersionDto createVersion(CreatePricingRuleVersionRequest request) {
+        PricingRuleVersion ruleVersion = new PricingRuleVersion();
+        ruleVersion.setDescription(request.getDescription());
+        ruleVersion.setDrl(request.getDrl());
+        ruleVersion.setStatus(PricingRuleVersion.Status.PENDING);
+        ruleVersion.setCreatedAt(LocalDateTime.now());
+
+        PricingRuleVersion savedVersion = pricingRuleVersionRepository.save(ruleVersion);
+        compileAfterCommit(savedVersion.getId(), savedVersion.getDrl());
+        return convertToDto(savedVersion);
+    }
+
+    public PricingRuleVersionDto activateVersion(Long version) {
+        if (version == BUNDLED_VERSION) {
+            compileAfterCommit(BUNDLED_VERSION, null);
+            return bundledVersionDto();
+        }
+        PricingRuleVersion ruleVersion = findVersion(version);
+        compileAfterCommit(ruleVersion.getId(), ruleVersion.getDrl());
+        return convertToDto(ruleVersion);
+    }
+
+    // picks up versions activated on other nodes, and the stored active version at startup; no
+    // active stored version means the bundled rules
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.pricing-rules.sync-interval:30000}")
+    public void syncActiveVersion() {
+        try {
+            PricingRuleVersion stored = pricingRuleVersionRepository
+                    .findFirstByStatusOrderByActivatedAtDesc(PricingRuleVersion.Status.ACTIVE)
+                    .orElse(null);
+            long version = stored == null ? BUNDLED_VERSION : stored.getId();
+            if (version != activeRules.get().getVersion()) {
+                String drl = stored == null ? null : stored.getDrl();
+                compiler.execute(() -> compileAndPublish(version, drl, false));
+            }
+        } catch (Exception e) {
+            log.error("Failed to sync active pricing rule version: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compiler.shutdownNow();
+    }
+
+    private void compileAfterCommit(Long version, String drl) {
+        Runnable task = () -> compiler.execute(() -> compileAndPublish(version, drl, true));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private void compileAndPublish(Long version, String drl, boolean recordStatus) {
+        try {
+            if (version != activeRules.get().getVersion()) {
+                CompiledRuleSet compiled = version == BUNDLED_VERSION ? bundledRules : compile(version, drl, recordStatus);
+                if (compiled == null) {
+                    return;
+                }
+                publish(compiled);
+            }
+            if (recordStatus) {
+                markActive(version);
+            }
+        } catch (Exception e) {
+            // anything but a compilation error would otherwise leave the version PENDING for good
+            log.error("Failed to publish pricing rule version {}: {}", version, e.getMessage());
+            if (recordStatus) {
+                markFailed(version, String.valueOf(e));
+            }
+        }
+    }
+
+    // returns null when the DRL does not compile
+    private CompiledRuleSet compile(Long version, String drl, boolean recordStatus) {
+        KieServices kieServices = KieServices.Factory.get();
+        ReleaseId releaseId = kieServices.newReleaseId(RULES_GROUP_ID, RULES_ARTIFACT_ID, "1.0." + version);
+
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        kieFileSystem.generateAndWritePomXML(releaseId);
+        kieFileSystem.write("src/main/resources/rules/pricing-rules-v" + version + ".drl", drl);
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem).buildAll();
+        if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
+            String errors = kieBuilder.getResults().getMessages(Message.Level.ERROR).toString();
+            log.warn("Pricing rule version {} failed to compile: {}", version, errors);
+            kieServices.getRepository().removeKieModule(releaseId);
+            if (recordStatus) {
+                markFailed(version, errors);
+            }
+            return null;
+        }
+
+        KieContainer kieContainer = kieServices.newKieContainer(releaseId);
+        List<NativeCartRules.Rule> nativeRules = NativeCartRules.translate(List.of(drl));
+        if (nativeRules == null) {
+            log.warn("Pricing rule version {} uses rules the native engine does not support, it will be priced by Drools", version);
+        }
+        return new CompiledRuleSet(version, kieContainer.newStatelessKieSession(), releaseId, nativeRules);
+    }
+
+    private static List<String> readBundledRules() {
+        List<String> drls = new ArrayList<>();
+        for (String ruleFile : DroolsConfig.RULE_FILES) {
+            try {
+                drls.add(new ClassPathResource(ruleFile).getContentAsString(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                log.warn("Failed to read {}, the native engine will price with Drools: {}", ruleFile, e.getMessage());
+                drls.add(null);
+            }
+        }
+        return drls;
+    }
+
+    private void publish(CompiledRuleSet compiled) {
+        KieServices kieServices = KieServices.Factory.get();
+        CompiledRuleSet previous = activeRules.getAndSet(compiled);
+        log.info("Published pricing rule version {} (was {})", compiled.getVersion(), previous.getVersion());
+
+        // in-flight calls keep their own reference to the old session, the module is only dropped from the repository
+        if (previous.getReleaseId() != null) {
+            kieServices.getRepository().removeKieModule(previous.getReleaseId());
+        }
+    }
+
+    private void markActive(Long version) {
+        try {
+            pricingRuleVersionRepository.activateVersion(version, LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Failed to record activation of pricing rule version {}: {}", version, e.getMessage());
+        }
+    }
+
+    private void markFailed(Long version, String errors) {
+        try {
+            pricingRuleVersionRepository.findById(version).ifPresent(ruleVersion -> {
+                ruleVersion.setStatus(PricingRuleVersion.Status.FAILED);
+                ruleVersion.setCompilationErrors(errors.length() > MAX_ERROR_LENGTH
+                        ? errors.substring(0, MAX_ERROR_LENGTH) : errors);
+                pricingRuleVersionRepository.save(ruleVersion);
+            });
+        } catch (Exception e) {
+            log.error("Failed to record compilation failure of pricing rule version {}: {}", version, e.getMessage());
+        }
+    }
+
+    private PricingRuleVersion findVersion(Long version) {
+        return pricingRuleVersionRepository.findById(version)
+                .orElseThrow(() -> new RuntimeException("Pricing rule version not found: " + version));
+    }
+
+    private PricingRuleVersionDto bundledVersionDto() {
+        PricingRuleVersionDto dto = new PricingRuleVersionDto();
+        dto.setVersion(BUNDLED_VERSION);
+        dto.setDescription("Rules bundled with the application");
+        dto.setStatus(activeRules.get() == bundledRules
+                ? PricingRuleVersion.Status.ACTIVE : PricingRuleVersion.Status.RETIRED);
+        return dto;
+    }
+
+    private PricingRuleVersionDto convertToDto(PricingRuleVersion ruleVersion) {
+        PricingRuleVersionDto dto = new PricingRuleVersionDto();
+        dto.setVersion(ruleVersion.getId());
+        dto.setDescription(ruleVersion.getDescription());
+        dto.setDrl(ruleVersion.getDrl());
+        dto.setStatus(ruleVersion.getStatus());
+        dto.setCompilationErrors(ruleVersion.getCompilationErrors());
+        dto.setCreatedAt(ruleVersion.getCreatedAt());
+        dto.setActivatedAt(ruleVersion.getActivatedAt());
+        return dto;
+    }
+}
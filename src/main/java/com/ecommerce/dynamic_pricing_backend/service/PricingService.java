@@ -1,44 +1,89 @@
 package com.ecommerce.dynamic_pricing_backend.service;
 
-import com.ecommerce.dynamic_pricing_backend.dto.CartDto;
 import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPriceQuote;
 import com.ecommerce.dynamic_pricing_backend.entity.Cart;
-import com.ecommerce.dynamic_pricing_backend.entity.DiscountRule;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
 import com.ecommerce.dynamic_pricing_backend.entity.Product;
 import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
-import com.ecommerce.dynamic_pricing_backend.repository.DiscountRuleRepository;
 import com.ecommerce.dynamic_pricing_backend.repository.PromotionRepository;
 import lombok.RequiredArgsConstructor;
-import org.kie.api.runtime.KieSession;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PricingService {
-    private final DiscountRuleRepository discountRuleRepository;
+    // reported as the pricing engine when the selected engine failed and DiscountRule rows were applied instead
+    public static final String FALLBACK_ENGINE = "discount-rules";
+
+    private final DiscountRuleEvaluator discountRuleEvaluator;
     private final PromotionRepository promotionRepository;
-    private final KieSession kieSession;
+    private final PricingEngines pricingEngines;
+    private final ActivePromotionIndex activePromotionIndex;
+    private final CartPricingCache cartPricingCache;
+
+    // keyed by product and promotion version, so a quote computed before a promotion change is never read after it
+    @Cacheable(value = "productPrices", key = "#product.id + ':' + @activePromotionIndex.currentVersion()", sync = true)
+    public ProductPriceQuote quoteProductPrice(ProductDto product) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Promotion> promotions = activePromotionIndex.findApplicablePromotions(product.getCategory(), product.getBrand(), now);
+
+        // the quote is valid until the next promotion affecting this product starts or ends
+        return new ProductPriceQuote(findBestPrice(product.getPrice(), promotions),
+                activePromotionIndex.findNextPriceBoundary(product.getCategory(), product.getBrand(), now));
+    }
 
-    @Cacheable(value = "productPrices", key = "#product.id")
     public BigDecimal calculateProductPrice(Product product) {
         // Check for category or brand-specific promotions
-        List<Promotion> promotions = promotionRepository.findActivePromotionsByCategory(
-                product.getCategory(), LocalDateTime.now());
+        List<Promotion> promotions = activePromotionIndex.findApplicablePromotions(
+                product.getCategory(), product.getBrand(), LocalDateTime.now());
+        return findBestPrice(product.getPrice(), promotions);
+    }
+
+    /**
+     * Prices cached catalog listings, which hold list prices only, so a promotion change never leaves
+     * a stale discounted price behind in the catalog caches.
+     */
+    public Map<Long, BigDecimal> calculateListingPrices(Collection<ProductDto> products) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // products sharing a category and brand share the same promotions, so look them up once per pair
+        Map<List<String>, List<Promotion>> promotionsByCategoryAndBrand = new HashMap<>();
+        Map<Long, BigDecimal> prices = new HashMap<>();
+
+        for (ProductDto product : products) {
+            List<Promotion> promotions = findApplicablePromotions(promotionsByCategoryAndBrand,
+                    product.getCategory(), product.getBrand(), now);
+            prices.put(product.getId(), findBestPrice(product.getPrice(), promotions));
+        }
 
-        promotions.addAll(promotionRepository.findActivePromotionsByBrand(
-                product.getBrand(), LocalDateTime.now()));
+        return prices;
+    }
+
+    private List<Promotion> findApplicablePromotions(Map<List<String>, List<Promotion>> promotionsByCategoryAndBrand,
+                                                     String category, String brand, LocalDateTime now) {
+        return promotionsByCategoryAndBrand.computeIfAbsent(Arrays.asList(category, brand),
+                key -> activePromotionIndex.findApplicablePromotions(category, brand, now));
+    }
 
-        BigDecimal bestPrice = product.getPrice();
+    private BigDecimal findBestPrice(BigDecimal originalPrice, List<Promotion> promotions) {
+        BigDecimal bestPrice = originalPrice;
 
         for (Promotion promotion : promotions) {
-            BigDecimal discountedPrice = applyPromotionToPrice(product.getPrice(), promotion);
+            BigDecimal discountedPrice = applyPromotionToPrice(originalPrice, promotion);
             if (discountedPrice.compareTo(bestPrice) < 0) {
                 bestPrice = discountedPrice;
             }
@@ -52,9 +97,15 @@ public class PricingService {
     }
 
     public PriceCalculationResult calculateCartPricing(Cart cart, String promotionCode) {
-        BigDecimal originalTotal = cart.getItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return calculateCartPricing(cart, promotionCode, null);
+    }
+
+    /**
+     * Prices the cart with the named {@link PricingEngine}, or the deployment default when {@code engine} is null.
+     */
+    public PriceCalculationResult calculateCartPricing(Cart cart, String promotionCode, String engine) {
+        PricingEngine pricingEngine = pricingEngines.get(engine);
+        BigDecimal originalTotal = MinorUnitPricing.toBigDecimal(calculateCartTotal(cart));
 
         PriceCalculationResult result = new PriceCalculationResult();
         result.setOriginalTotal(originalTotal);
@@ -62,8 +113,8 @@ public class PricingService {
         result.setFinalTotal(originalTotal);
         result.setAppliedDiscounts(new ArrayList<>());
 
-        // applying automatic discount rules using Drools
-        applyAutomaticDiscounts(cart, result);
+        // applying automatic discount rules
+        applyAutomaticDiscounts(pricingEngine, cart, result);
 
         // applying promotion code if provided
         if (promotionCode != null && !promotionCode.trim().isEmpty()) {
@@ -79,85 +130,35 @@ public class PricingService {
         return result;
     }
 
-    private void applyAutomaticDiscounts(Cart cart, PriceCalculationResult result) {
-        try {
-            // converting Cart to CartDto for rules engine
-            CartDto cartDto = convertCartToDto(cart);
-
-            // inserting facts into rules engine
-            kieSession.insert(cartDto);
-            kieSession.insert(result);
-
-            // firing all applicable rules
-            kieSession.fireAllRules();
+    private void applyAutomaticDiscounts(PricingEngine engine, Cart cart, PriceCalculationResult result) {
+        long version = engine.getVersion();
 
-            // clearing session for next use
-            kieSession.dispose();
-        } catch (Exception e) {
-            // fallback to manual rule application if Drools fails
-            applyManualDiscountRules(cart, result);
+        // an unchanged cart priced by the same rule versions gets the same discounts, so reuse them
+        CartPricingCache.Key key = cartPricingCache.keyFor(cart, engine.getName(), version, discountRuleEvaluator.getVersion());
+        if (cartPricingCache.applyCached(key, result)) {
+            return;
         }
-    }
 
-    private void applyManualDiscountRules(Cart cart, PriceCalculationResult result) {
-        List<DiscountRule> activeRules = discountRuleRepository.findActiveRules(LocalDateTime.now());
-
-        for (DiscountRule rule : activeRules) {
-            if (isRuleApplicable(cart, rule)) {
-                BigDecimal discount = calculateRuleDiscount(cart, rule);
-                result.setDiscountAmount(result.getDiscountAmount().add(discount));
-                result.getAppliedDiscounts().add(rule.getName());
-            }
-        }
-    }
-
-    private boolean isRuleApplicable(Cart cart, DiscountRule rule) {
-        switch (rule.getRuleType()) {
-            case CART_TOTAL:
-                BigDecimal cartTotal = cart.getItems().stream()
-                        .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                return evaluateCondition(cartTotal, rule);
-
-            case QUANTITY_BASED:
-                int totalQuantity = cart.getItems().stream()
-                        .mapToInt(item -> item.getQuantity())
-                        .sum();
-                return evaluateCondition(BigDecimal.valueOf(totalQuantity), rule);
-
-            default:
-                return false;
+        try {
+            result.setPricingEngine(engine.getName());
+            engine.applyDiscounts(cart, result);
+        } catch (Exception e) {
+            // fallback to manual rule application if the engine fails
+            log.warn("{} pricing failed, falling back to manual discount rules: {}", engine.getName(), e.getMessage());
+            result.setDiscountAmount(BigDecimal.ZERO);
+            result.getAppliedDiscounts().clear();
+            result.setRuleVersion(null);
+            result.setPricingEngine(FALLBACK_ENGINE);
+            discountRuleEvaluator.applyDiscountRules(cart, result);
         }
-    }
 
-    private boolean evaluateCondition(BigDecimal value, DiscountRule rule) {
-        BigDecimal conditionValue = new BigDecimal(rule.getConditionValue());
-
-        switch (rule.getConditionOperator()) {
-            case GREATER_THAN:
-                return value.compareTo(conditionValue) > 0;
-            case GREATER_THAN_OR_EQUAL:
-                return value.compareTo(conditionValue) >= 0;
-            case LESS_THAN:
-                return value.compareTo(conditionValue) < 0;
-            case LESS_THAN_OR_EQUAL:
-                return value.compareTo(conditionValue) <= 0;
-            case EQUALS:
-                return value.compareTo(conditionValue) == 0;
-            default:
-                return false;
+        // a fallback result is not what the engine would return once it recovers, and a rule set published
+        // between reading the version and evaluating must not be cached under the old version
+        if (FALLBACK_ENGINE.equals(result.getPricingEngine())) {
+            return;
         }
-    }
-
-    private BigDecimal calculateRuleDiscount(Cart cart, DiscountRule rule) {
-        BigDecimal cartTotal = cart.getItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        if (rule.getDiscountType() == DiscountRule.DiscountType.PERCENTAGE) {
-            return cartTotal.multiply(rule.getDiscountValue().divide(BigDecimal.valueOf(100)));
-        } else {
-            return rule.getDiscountValue();
+        if (result.getRuleVersion() == null || result.getRuleVersion() == version) {
+            cartPricingCache.put(key, result);
         }
     }
 
@@ -176,46 +177,36 @@ public class PricingService {
     }
 
     private BigDecimal calculatePromotionDiscount(Cart cart, Promotion promotion) {
-        BigDecimal cartTotal = cart.getItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        if (promotion.getMinOrderAmount() != null &&
-                cartTotal.compareTo(promotion.getMinOrderAmount()) < 0) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal discount;
-        if (promotion.getDiscountType() == Promotion.DiscountType.PERCENTAGE) {
-            discount = cartTotal.multiply(promotion.getDiscountValue().divide(BigDecimal.valueOf(100)));
-        } else {
-            discount = promotion.getDiscountValue();
-        }
-
-        // Apply maximum discount limit if specified
-        if (promotion.getMaxDiscountAmount() != null &&
-                discount.compareTo(promotion.getMaxDiscountAmount()) > 0) {
-            discount = promotion.getMaxDiscountAmount();
-        }
-
-        return discount.setScale(2, RoundingMode.HALF_UP);
+        long discount = MinorUnitPricing.promotionDiscount(
+                calculateCartTotal(cart),
+                promotion.getDiscountType() == Promotion.DiscountType.PERCENTAGE,
+                promotion.getDiscountType() == Promotion.DiscountType.PERCENTAGE
+                        ? MinorUnitPricing.toBasisPoints(promotion.getDiscountValue())
+                        : MinorUnitPricing.toMinorUnits(promotion.getDiscountValue()),
+                MinorUnitPricing.toMinorUnitsOrNoLimit(promotion.getMinOrderAmount()),
+                MinorUnitPricing.toMinorUnitsOrNoLimit(promotion.getMaxDiscountAmount()));
+
+        return MinorUnitPricing.toBigDecimal(discount);
     }
 
     private BigDecimal applyPromotionToPrice(BigDecimal originalPrice, Promotion promotion) {
+        long price = MinorUnitPricing.toMinorUnits(originalPrice);
         if (promotion.getDiscountType() == Promotion.DiscountType.PERCENTAGE) {
-            BigDecimal discount = originalPrice.multiply(promotion.getDiscountValue().divide(BigDecimal.valueOf(100)));
-            return originalPrice.subtract(discount);
+            return MinorUnitPricing.toBigDecimal(MinorUnitPricing.applyPercentageOff(
+                    price, MinorUnitPricing.toBasisPoints(promotion.getDiscountValue())));
         } else {
-            return originalPrice.subtract(promotion.getDiscountValue()).max(BigDecimal.ZERO);
+            return MinorUnitPricing.toBigDecimal(MinorUnitPricing.applyFixedAmountOff(
+                    price, MinorUnitPricing.toMinorUnits(promotion.getDiscountValue())));
         }
     }
 
-    private CartDto convertCartToDto(Cart cart) {
-        CartDto dto = new CartDto();
-        BigDecimal subtotal = cart.getItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        dto.setSubtotal(subtotal);
-        return dto;
+    // cart subtotal in minor units, summed without intermediate BigDecimal allocations
+    private long calculateCartTotal(Cart cart) {
+        long total = 0L;
+        for (CartItem item : cart.getItems()) {
+            total = Math.addExact(total, MinorUnitPricing.lineTotal(
+                    MinorUnitPricing.toMinorUnits(item.getUnitPrice()), item.getQuantity()));
+        }
+        return total;
     }
 }
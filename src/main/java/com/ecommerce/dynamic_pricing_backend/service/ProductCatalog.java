@@ -0,0 +1,78 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPageDto;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cached catalog reads. Entries hold list prices only; {@link ProductService} adds the discounted
+ * price on the way out. Single products are evicted by id, listings and search pages are keyed by
+ * their {@link CatalogVersions} scope version.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProductCatalog {
+    private final ProductRepository productRepository;
+
+    @Cacheable(value = "product", key = "#id", sync = true)
+    public ProductDto findById(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        return convertToDto(product);
+    }
+
+    @Cacheable(value = "productListings", key = "'all:' + @catalogVersions.current('all')", sync = true)
+    public List<ProductDto> findAllActiveProducts() {
+        return convertToDtos(productRepository.findByActiveTrue());
+    }
+
+    @Cacheable(value = "productListings", key = "'category:' + #category + ':' + @catalogVersions.categoryVersion(#category)", sync = true)
+    public List<ProductDto> findByCategory(String category) {
+        return convertToDtos(productRepository.findByCategoryAndActiveTrue(category));
+    }
+
+    @Cacheable(value = "productListings", key = "'brand:' + #brand + ':' + @catalogVersions.brandVersion(#brand)", sync = true)
+    public List<ProductDto> findByBrand(String brand) {
+        return convertToDtos(productRepository.findByBrandAndActiveTrue(brand));
+    }
+
+    @Cacheable(value = "productSearch", sync = true,
+            key = "#searchTerm.toLowerCase() + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort + ':' + @catalogVersions.current('search')")
+    public ProductPageDto searchProducts(String searchTerm, Pageable pageable) {
+        Page<Product> products = productRepository.searchProducts(searchTerm, pageable);
+        return new ProductPageDto(convertToDtos(products.getContent()), products.getTotalElements());
+    }
+
+    private List<ProductDto> convertToDtos(List<Product> products) {
+        return products.stream()
+                .map(ProductCatalog::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    static ProductDto convertToDto(Product product) {
+        ProductDto dto = new ProductDto();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setCategory(product.getCategory());
+        dto.setBrand(product.getBrand());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setActive(product.getActive());
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        return dto;
+    }
+}
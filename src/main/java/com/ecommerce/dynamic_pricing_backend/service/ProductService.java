@@ -2,19 +2,28 @@ package com.ecommerce.dynamic_pricing_backend.service;
 
 import com.ecommerce.dynamic_pricing_backend.dto.CreateProductRequest;
 import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPageDto;
+import com.ecommerce.dynamic_pricing_backend.entity.OrderItem;
 import com.ecommerce.dynamic_pricing_backend.entity.Product;
 import com.ecommerce.dynamic_pricing_backend.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,42 +32,31 @@ import java.util.stream.Collectors;
 public class ProductService {
     private final ProductRepository productRepository;
     private final PricingService pricingService;
+    private final ProductCatalog productCatalog;
+    private final CatalogVersions catalogVersions;
 
-    @Cacheable(value = "products", key = "#id")
     public ProductDto findById(Long id){
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: "+id));
-        return convertToDto(product);
+        ProductDto product = productCatalog.findById(id);
+        return withDiscountedPrice(product, pricingService.quoteProductPrice(product).getDiscountedPrice());
     }
 
-    @Cacheable(value = "products")
     public List<ProductDto> findAllActiveProducts(){
-        List<Product> products = productRepository.findByActiveTrue();
-        return products.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return withDiscountedPrices(productCatalog.findAllActiveProducts());
     }
 
     public List<ProductDto> findByCategory(String category){
-        List<Product> products = productRepository.findByCategoryAndActiveTrue(category);
-        return products.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return withDiscountedPrices(productCatalog.findByCategory(category));
     }
 
     public List<ProductDto> findByBrand(String brand){
-        List<Product> products = productRepository.findByBrandAndActiveTrue(brand);
-        return products.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return withDiscountedPrices(productCatalog.findByBrand(brand));
     }
 
     public Page<ProductDto> searchProducts(String searchTerm, Pageable pageable) {
-        Page<Product> products = productRepository.searchProducts(searchTerm, pageable);
-        return products.map(this::convertToDto);
+        ProductPageDto page = productCatalog.searchProducts(searchTerm, pageable);
+        return new PageImpl<>(withDiscountedPrices(page.getContent()), pageable, page.getTotalElements());
     }
 
-    @CacheEvict(value = "products", allEntries = true)
     public ProductDto createProduct(CreateProductRequest request) {
         Product product = new Product();
         product.setName(request.getName());
@@ -72,13 +70,15 @@ public class ProductService {
         product.setCreatedAt(LocalDateTime.now());
 
         Product savedProduct = productRepository.save(product);
+        catalogVersions.productsChangedAfterCommit(List.of(savedProduct), List.of());
         return convertToDto(savedProduct);
     }
 
-    @CacheEvict(value = "products", key = "#id")
     public ProductDto updateProduct(Long id, CreateProductRequest request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        List<String> previousScopes = listingScopes(product);
+        List<Object> previousListingFields = listingFields(product);
 
         if (request.getName() != null && !request.getName().isBlank()) {
             product.setName(request.getName());
@@ -105,15 +105,20 @@ public class ProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         Product updatedProduct = productRepository.save(product);
+        if (listingFields(updatedProduct).equals(previousListingFields)) {
+            catalogVersions.stockChangedAfterCommit(List.of(updatedProduct.getId()));
+        } else {
+            catalogVersions.productsChangedAfterCommit(List.of(updatedProduct), previousScopes);
+        }
         return convertToDto(updatedProduct);
     }
 
-    @CacheEvict(value = "products", key = "#id")
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setActive(false);
         productRepository.save(product);
+        catalogVersions.productsChangedAfterCommit(List.of(product), List.of());
     }
 
     public List<String> getAllCategories() {
@@ -125,35 +130,103 @@ public class ProductService {
     }
 
     public void updateStock(Long productId, Integer quantity){
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: "+productId));
+        // the check and the decrement are one statement, so concurrent callers cannot both pass the check
+        if (productRepository.decrementStock(productId, quantity, LocalDateTime.now()) == 0) {
+            // no row means a missing product or too little stock; only this failure path looks up which
+            if (!productRepository.existsById(productId)) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+            throw new InsufficientStockException("Insufficient stock for product id: " + productId);
+        }
+        catalogVersions.stockChangedAfterCommit(List.of(productId));
+    }
 
-        if (product.getStockQuantity() < quantity) {
-            throw new RuntimeException("Insufficient stock for product: " + product.getName());
+    /**
+     * Takes the stock of every order line in one batch of conditional updates, all or nothing. A line
+     * without enough stock rolls the batch back and throws {@link InsufficientStockException} naming
+     * its product; the caller's transaction is left usable, e.g. to record a failed order.
+     */
+    @Transactional(noRollbackFor = InsufficientStockException.class)
+    public void decrementStock(Collection<OrderItem> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Product> products = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            products.put(item.getProduct().getId(), item.getProduct());
         }
 
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+        // the repository has rolled the whole batch back when a line failed
+        int[] updated = productRepository.decrementStock(quantities);
+        int line = 0;
+        for (Long productId : quantities.keySet()) {
+            if (updated[line] == 0 || updated[line] == Statement.EXECUTE_FAILED) {
+                throw new InsufficientStockException("Insufficient stock for product: " + products.get(productId).getName());
+            }
+            line++;
+        }
+        catalogVersions.stockChangedAfterCommit(quantities.keySet());
+    }
+
+    /**
+     * Puts the stock of cancelled order lines back, with relative updates that cannot overwrite a
+     * concurrent checkout's decrement.
+     */
+    public void restoreStock(Collection<OrderItem> items) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> restocked = new ArrayList<>();
+        for (OrderItem item : items) {
+            productRepository.incrementStock(item.getProduct().getId(), item.getQuantity(), now);
+            restocked.add(item.getProduct().getId());
+        }
+        catalogVersions.stockChangedAfterCommit(restocked);
+    }
+
+    // the category and brand listings a product appears in before it is changed
+    private List<String> listingScopes(Product product) {
+        List<String> scopes = new ArrayList<>(2);
+        if (product.getCategory() != null) {
+            scopes.add(CatalogVersions.category(product.getCategory()));
+        }
+        if (product.getBrand() != null) {
+            scopes.add(CatalogVersions.brand(product.getBrand()));
+        }
+        return scopes;
+    }
+
+    // what listings and search pages show of a product, besides its stock and timestamps
+    private static List<Object> listingFields(Product product) {
+        return Arrays.asList(product.getName(), product.getDescription(), product.getPrice(), product.getCategory(),
+                product.getBrand(), product.getImageUrl(), product.getActive());
+    }
+
+    private List<ProductDto> withDiscountedPrices(List<ProductDto> products) {
+        // pricing the whole list in one pass shares promotion lookups between products
+        Map<Long, BigDecimal> discountedPrices = pricingService.calculateListingPrices(products);
+        return products.stream()
+                .map(product -> withDiscountedPrice(product, discountedPrices.get(product.getId())))
+                .collect(Collectors.toList());
     }
 
     private ProductDto convertToDto(Product product) {
-        ProductDto dto = new ProductDto();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
+        return withDiscountedPrice(ProductCatalog.convertToDto(product), pricingService.calculateProductPrice(product));
+    }
 
-        // Calculate discounted price using pricing service
-        BigDecimal discountedPrice = pricingService.calculateProductPrice(product);
+    // cached DTOs are shared between callers, so the price is set on a copy
+    private ProductDto withDiscountedPrice(ProductDto cached, BigDecimal discountedPrice) {
+        ProductDto dto = new ProductDto();
+        dto.setId(cached.getId());
+        dto.setName(cached.getName());
+        dto.setDescription(cached.getDescription());
+        dto.setPrice(cached.getPrice());
         dto.setDiscountedPrice(discountedPrice);
 
-        dto.setStockQuantity(product.getStockQuantity());
-        dto.setCategory(product.getCategory());
-        dto.setBrand(product.getBrand());
-        dto.setImageUrl(product.getImageUrl());
-        dto.setActive(product.getActive());
-        dto.setCreatedAt(product.getCreatedAt());
-        dto.setUpdatedAt(product.getUpdatedAt());
+        dto.setStockQuantity(cached.getStockQuantity());
+        dto.setCategory(cached.getCategory());
+        dto.setBrand(cached.getBrand());
+        dto.setImageUrl(cached.getImageUrl());
+        dto.setActive(cached.getActive());
+        dto.setCreatedAt(cached.getCreatedAt());
+        dto.setUpdatedAt(cached.getUpdatedAt());
 
         return dto;
     }
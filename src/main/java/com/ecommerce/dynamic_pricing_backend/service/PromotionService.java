@@ -27,8 +27,10 @@ public class PromotionService {
     private final UserPromotionRepository userPromotionRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final ActivePromotionIndex activePromotionIndex;
 
-    @Cacheable(value = "promotions")
+    // keyed by the promotion window, so an entry never outlives a promotion starting or ending
+    @Cacheable(value = "promotions", key = "@activePromotionIndex.priceWindow(T(java.time.LocalDateTime).now())", sync = true)
     public List<PromotionDto> getAllActivePromotions() {
         List<Promotion> promotions = promotionRepository.findActivePromotions(LocalDateTime.now());
         return promotions.stream()
@@ -79,6 +81,7 @@ public class PromotionService {
         promotion.setCreatedAt(LocalDateTime.now());
 
         Promotion savedPromotion = promotionRepository.save(promotion);
+        activePromotionIndex.refreshAfterCommit();
         return convertToDto(savedPromotion);
     }
 
@@ -101,6 +104,7 @@ public class PromotionService {
         promotion.setUpdatedAt(LocalDateTime.now());
 
         Promotion updatedPromotion = promotionRepository.save(promotion);
+        activePromotionIndex.refreshAfterCommit();
         return convertToDto(updatedPromotion);
     }
 
@@ -112,6 +116,7 @@ public class PromotionService {
         promotion.setActive(false);
         promotion.setUpdatedAt(LocalDateTime.now());
         promotionRepository.save(promotion);
+        activePromotionIndex.refreshAfterCommit();
     }
 
     public void trackPromotionUsage(Long userId, String promotionCode, Long orderId) {
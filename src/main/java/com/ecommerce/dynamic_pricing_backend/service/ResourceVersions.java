@@ -0,0 +1,64 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Builds strong ETags for the cart, catalog and promotion views from version counters alone, so a
+ * conditional GET whose tag still matches is answered without mapping or repricing anything. A tag
+ * covers every input of its view and is the same on every node. Methods return null when an input
+ * cannot be read, and the view is then served without an ETag.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResourceVersions {
+    private final CartService cartService;
+    private final CatalogVersions catalogVersions;
+    private final ActivePromotionIndex activePromotionIndex;
+    private final PricingEngines pricingEngines;
+    private final DiscountRuleEvaluator discountRuleEvaluator;
+
+    /**
+     * The cart's own version, the catalog version for product names and images, and the versions of
+     * the rules that price it, including the discount rules used when the engine fails.
+     */
+    public String cartTag(Long userId) {
+        try {
+            Long cartVersion = cartService.getCartVersion(userId);
+            if (cartVersion == null) {
+                return null;
+            }
+            PricingEngine engine = pricingEngines.getDefault();
+            return "cart-" + userId + "." + cartVersion
+                    + "-" + catalogVersions.current(CatalogVersions.ALL)
+                    + "-" + engine.getName() + "." + engine.getVersion()
+                    + "-" + discountRuleEvaluator.stateTag(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Failed to compute cart ETag for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The full-catalog listing version plus the promotion state its discounted prices come from.
+     */
+    public String catalogTag() {
+        try {
+            String promotions = activePromotionIndex.priceStateTag(LocalDateTime.now());
+            return promotions == null ? null
+                    : "products-" + catalogVersions.current(CatalogVersions.ALL) + "-" + promotions;
+        } catch (Exception e) {
+            log.warn("Failed to compute catalog ETag: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public String promotionsTag() {
+        String promotions = activePromotionIndex.priceStateTag(LocalDateTime.now());
+        return promotions == null ? null : "promotions-" + promotions;
+    }
+}
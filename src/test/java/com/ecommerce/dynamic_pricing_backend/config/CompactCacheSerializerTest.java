@@ -0,0 +1,116 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPageDto;
+import com.ecommerce.dynamic_pricing_backend.dto.ProductPriceQuote;
+import com.ecommerce.dynamic_pricing_backend.dto.PromotionDto;
+import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactCacheSerializerTest {
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(1024);
+
+    @Test
+    void roundTripsCachedValues() {
+        PromotionDto promotion = new PromotionDto();
+        promotion.setId(3L);
+        promotion.setCode("SUMMER");
+        promotion.setDiscountType(Promotion.DiscountType.PERCENTAGE);
+        promotion.setDiscountValue(new BigDecimal("12.50"));
+        promotion.setStartDate(LocalDateTime.of(2025, 6, 1, 0, 0));
+        promotion.setActive(true);
+
+        ProductPriceQuote quote = new ProductPriceQuote(new BigDecimal("-0.01"), LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1));
+
+        assertEquals(product(1), serializer.deserialize(serializer.serialize(product(1))));
+        assertEquals(promotion, serializer.deserialize(serializer.serialize(promotion)));
+        assertEquals(quote, serializer.deserialize(serializer.serialize(quote)));
+        assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+
+        ProductPageDto page = new ProductPageDto(List.of(product(1), product(2)), 42);
+        assertEquals(page, serializer.deserialize(serializer.serialize(page)));
+    }
+
+    @Test
+    void compressesLargeCatalogListsAndStaysSmallerThanJdkSerialization() {
+        List<ProductDto> catalog = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            catalog.add(product(i));
+        }
+
+        byte[] compact = serializer.serialize(catalog);
+        byte[] jdk = RedisSerializer.java().serialize(catalog);
+
+        assertEquals(catalog, serializer.deserialize(compact));
+        assertEquals(0x02, compact[0]); // deflated
+        assertTrue(compact.length < jdk.length / 4, compact.length + " vs " + jdk.length);
+    }
+
+    @Test
+    void encodesSmallerThanTheOtherCacheSerializers() {
+        // the payloads CacheSerializerBenchmark times
+        RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer()
+                .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+        List<ProductDto> catalog = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            catalog.add(product(i));
+        }
+
+        for (Object value : List.of(product(1), catalog)) {
+            int compact = serializer.serialize(value).length;
+            int jsonLength = json.serialize(value).length;
+            int jdk = RedisSerializer.java().serialize(value).length;
+            assertTrue(compact < jsonLength && compact < jdk, compact + " vs " + jsonLength + " (json), " + jdk + " (jdk)");
+        }
+    }
+
+    @Test
+    void readsValuesWrittenByTheJdkSerializer() {
+        byte[] legacy = RedisSerializer.java().serialize(new ArrayList<>(List.of(product(5))));
+        assertEquals(List.of(product(5)), serializer.deserialize(legacy));
+    }
+
+    @Test
+    void skipsFieldsAddedByNewerNodes() {
+        CompactOutput out = new CompactOutput(64);
+        out.writeRaw(new byte[]{0x01, 0x01}, 0, 2); // plain format, product type
+        out.writeLong(1, 7L);
+        out.writeString(99, "written by a newer schema");
+        out.writeDecimal(98, BigDecimal.TEN);
+        out.writeString(2, "Desk");
+        out.endObject();
+
+        ProductDto product = (ProductDto) serializer.deserialize(out.toByteArray());
+        assertEquals(7L, product.getId());
+        assertEquals("Desk", product.getName());
+        assertNull(product.getPrice());
+    }
+
+    private ProductDto product(int id) {
+        ProductDto product = new ProductDto();
+        product.setId((long) id);
+        product.setName("Product " + id);
+        product.setDescription("Description of product " + id);
+        product.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(id)));
+        product.setDiscountedPrice(new BigDecimal("17.99").add(BigDecimal.valueOf(id)));
+        product.setStockQuantity(id * 3);
+        product.setCategory("Category " + id % 10);
+        product.setBrand("Brand " + id % 7);
+        product.setImageUrl("https://example.com/" + id + ".png");
+        product.setActive(true);
+        product.setCreatedAt(LocalDateTime.of(2025, 1, 1, 10, 30, 15, 123_000_000));
+        return product;
+    }
+}
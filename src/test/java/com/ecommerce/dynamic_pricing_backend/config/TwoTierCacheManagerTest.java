@@ -0,0 +1,114 @@
+package com.ecommerce.dynamic_pricing_backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TwoTierCacheManagerTest {
+    private final ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager("products");
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final TwoTierCacheManager cacheManager = new TwoTierCacheManager(remote,
+            new CacheInvalidationBroadcaster(redisTemplate, "cache-invalidation"), new LoadLease(redisTemplate, "node-1"),
+            new CachePolicyConfig(), Map.of());
+
+    @Test
+    void readsAreServedFromLocalTierOnceLoaded() {
+        remote.getCache("products").put(1L, "product 1");
+        Cache cache = cacheManager.getCache("products");
+
+        assertEquals("product 1", cache.get(1L).get());
+
+        // dropping the remote entry directly is invisible to an L1 that already holds it
+        remote.getCache("products").evict(1L);
+        assertEquals("product 1", cache.get(1L).get());
+
+        CacheStatistics statistics = cacheManager.getStatistics().get("products");
+        assertEquals(1, statistics.getLocalHits());
+        assertEquals(1, statistics.getRemoteHits());
+        assertEquals(1, statistics.getLoads());
+    }
+
+    @Test
+    void concurrentMissesRunTheLoaderOnce() throws Exception {
+        Cache cache = cacheManager.getCache("products");
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> cache.get(1L, () -> {
+                    loaderCalls.incrementAndGet();
+                    loaderStarted.countDown();
+                    releaseLoader.await();
+                    return "product 1";
+                })));
+            }
+            loaderStarted.await();
+            Thread.sleep(50); // let the other callers reach the in-flight load
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("product 1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, loaderCalls.get());
+        assertEquals("product 1", remote.getCache("products").get(1L).get());
+    }
+
+    @Test
+    void policiesFallBackToDefaultsAndMatchDashedNames() {
+        CachePolicyConfig config = new CachePolicyConfig();
+        CachePolicyConfig.CachePolicy prices = new CachePolicyConfig.CachePolicy();
+        prices.setMaxEntries(20_000);
+        config.getCaches().put("product-prices", prices);
+
+        CachePolicyConfig.CachePolicy policy = config.policyFor("productPrices");
+        assertEquals(20_000, policy.getMaxEntries());
+        assertEquals(config.getDefaults().getTtl(), policy.getTtl());
+        assertEquals(config.getDefaults(), config.policyFor("promotions"));
+    }
+
+    @Test
+    void evictionsAreBroadcastAndAppliedByOtherNodes() {
+        Cache cache = cacheManager.getCache("products");
+        cache.put(1L, "product 1");
+
+        // both the put and the evict invalidate other nodes' copies
+        cache.evict(1L);
+        verify(redisTemplate, times(2)).convertAndSend(eq("cache-invalidation"), contains("\nevict\nproducts\n1"));
+
+        // another node evicts the key: the local copy goes, the next read falls through to the remote tier
+        cache.put(2L, "product 2");
+        remote.getCache("products").evict(2L);
+        cacheManager.onMessage(new DefaultMessage("cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                "other-node\nevict\nproducts\n2".getBytes(StandardCharsets.UTF_8)), null);
+        assertNull(cache.get(2L));
+    }
+}
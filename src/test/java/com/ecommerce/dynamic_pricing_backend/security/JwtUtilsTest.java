@@ -0,0 +1,59 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.config.JwtConfig;
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtUtilsTest {
+    private static final String SECRET = "4FlfKplyMPYVocYoPLlOFaeyQa3/m+cyDqDMKg/k0qE=";
+
+    private final JwtUtils jwtUtils = new JwtUtils(jwtConfig());
+
+    @Test
+    void tokensCarryTheClaimsNeededForAStatelessPrincipal() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("admin@example.com");
+        user.setRole(User.Role.ADMIN);
+        user.setTokenVersion(3L);
+
+        Claims claims = jwtUtils.parseToken(jwtUtils.generateToken(user));
+        User principal = jwtUtils.principalFromClaims(claims);
+
+        assertEquals(7L, principal.getId());
+        assertEquals("admin@example.com", principal.getUsername());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+        assertEquals(3L, jwtUtils.tokenVersion(claims));
+    }
+
+    @Test
+    void tokensWithoutUserClaimsHaveNoStatelessPrincipal() {
+        String legacy = Jwts.builder()
+                .setSubject("customer@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        Claims claims = jwtUtils.parseToken(legacy);
+        assertEquals("customer@example.com", claims.getSubject());
+        assertNull(jwtUtils.principalFromClaims(claims));
+        assertEquals(0L, jwtUtils.tokenVersion(claims));
+
+        assertNull(jwtUtils.parseToken(legacy.substring(0, legacy.length() - 2) + "xx"));
+    }
+
+    private static JwtConfig jwtConfig() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setJwtSecret(SECRET);
+        jwtConfig.setJwtExpiration(60_000);
+        return jwtConfig;
+    }
+}
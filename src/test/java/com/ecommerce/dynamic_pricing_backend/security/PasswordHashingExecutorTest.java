@@ -0,0 +1,52 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void rejectsImmediatelyOnceThePoolAndQueueAreFull() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 5_000);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> executor.run(() -> {
+                running.countDown();
+                await(release);
+                return "first";
+            }));
+            running.await(5, TimeUnit.SECONDS);
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.run(() -> "queued"));
+            while (executor.getQueueDepth() == 0) {
+                Thread.onSpinWait();
+            }
+
+            RuntimeException busy = assertThrows(RuntimeException.class, () -> executor.run(() -> "rejected"));
+            assertEquals(PasswordHashingExecutor.BUSY_MESSAGE, busy.getMessage());
+
+            release.countDown();
+            assertEquals("first", first.get(5, TimeUnit.SECONDS));
+            assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executor.getRejected());
+            assertTrue(executor.getAverageHashTimeMillis() >= 0.0);
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.config.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RateLimiterTest {
+
+    @Test
+    void bucketsArePerClientAndRejectionsAreCounted() {
+        RateLimiter rateLimiter = new RateLimiter(new RateLimitConfig(), mock(StringRedisTemplate.class));
+        RateLimitConfig.Group checkout = new RateLimitConfig.Group();
+        checkout.setCapacity(2);
+        checkout.setRefillPerSecond(0.001);
+
+        assertTrue(rateLimiter.tryAcquire("checkout", checkout, "user:1"));
+        assertTrue(rateLimiter.tryAcquire("checkout", checkout, "user:1"));
+        assertFalse(rateLimiter.tryAcquire("checkout", checkout, "user:1"));
+
+        // another client has its own bucket
+        assertTrue(rateLimiter.tryAcquire("checkout", checkout, "ip:10.0.0.1"));
+
+        assertEquals(Map.of("checkout", 1L), rateLimiter.getRejections());
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionServiceTest {
+
+    @Test
+    void aUserRowWithoutATokenVersionReadsAsVersionZero() throws Exception {
+        // ddl-auto adds token_version as NULL to existing rows; the unit tests have no database, so the
+        // query itself is checked: a bare NULL would read as no row, i.e. a deleted user
+        String query = UserRepository.class.getMethod("findTokenVersionById", Long.class)
+                .getAnnotation(Query.class).value();
+        assertTrue(query.startsWith("SELECT COALESCE(u.tokenVersion, 0L) "), query);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0L));
+        TokenVersionService service = new TokenVersionService(userRepository, new ConcurrentMapCacheManager());
+
+        // the version JwtUtils puts into tokens for such a user
+        assertEquals(0L, service.currentVersion(1L));
+    }
+
+    @Test
+    void aDeletedUserMatchesNoToken() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.empty());
+        TokenVersionService service = new TokenVersionService(userRepository, new ConcurrentMapCacheManager());
+
+        assertEquals(-1L, service.currentVersion(1L));
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.dynamic_pricing_backend.security;
+
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void entriesAreKeyedByTokenAndNeverOutliveIt() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, Duration.ofMinutes(10));
+        long now = System.currentTimeMillis();
+
+        cache.put(cache.keyFor("header.valid.signature"), token(now + 60_000));
+        cache.put(cache.keyFor("header.expired.signature"), token(now - 1));
+
+        assertNotNull(cache.get(cache.keyFor("header.valid.signature")));
+        assertNull(cache.get(cache.keyFor("header.expired.signature")));
+        assertNull(cache.get(cache.keyFor("header.other.signature")));
+
+        // the expired entry is the one evicted to make room
+        cache.put(cache.keyFor("header.third.signature"), token(now + 60_000));
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(cache.keyFor("header.valid.signature")));
+    }
+
+    private static VerifiedToken token(long expiresAtMillis) {
+        return new VerifiedToken("customer@example.com", 1L, User.Role.CUSTOMER, 0L, expiresAtMillis);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
+import com.ecommerce.dynamic_pricing_backend.repository.PromotionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivePromotionIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 3, 31, 23, 59);
+
+    private PromotionRepository promotionRepository;
+    private CatalogVersions catalogVersions;
+    private ActivePromotionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        promotionRepository = mock(PromotionRepository.class);
+        catalogVersions = mock(CatalogVersions.class);
+        when(promotionRepository.findCurrentAndUpcomingPromotions(any())).thenReturn(List.of(promotion()));
+        index = new ActivePromotionIndex(promotionRepository, new ConcurrentMapCacheManager(), catalogVersions);
+    }
+
+    @Test
+    void tagChangesOnlyWhenAPromotionStartsOrEnds() {
+        String before = index.priceStateTag(START.minusDays(1));
+        String atStart = index.priceStateTag(START);
+        String during = index.priceStateTag(START.plusDays(10));
+        String atEnd = index.priceStateTag(END);
+        String after = index.priceStateTag(END.plusNanos(1));
+
+        assertNotEquals(before, atStart);
+        assertEquals(atStart, during);
+        assertEquals(during, atEnd);
+        assertNotEquals(atEnd, after);
+    }
+
+    @Test
+    void aNewerPromotionVersionRebuildsTheIndexOnce() {
+        String first = index.priceStateTag(START);
+        when(catalogVersions.current(CatalogVersions.PROMOTIONS)).thenReturn(1L);
+
+        String second = index.priceStateTag(START);
+        index.priceStateTag(START);
+
+        assertNotEquals(first, second);
+        verify(promotionRepository, times(2)).findCurrentAndUpcomingPromotions(any());
+    }
+
+    @Test
+    void priceQuotesAreKeyedByAVersionTheIndexHasCaughtUpWith() {
+        assertEquals(0L, index.currentVersion());
+        when(catalogVersions.current(CatalogVersions.PROMOTIONS)).thenReturn(3L);
+
+        assertEquals(3L, index.currentVersion());
+        verify(promotionRepository, times(2)).findCurrentAndUpcomingPromotions(any());
+
+        // without the published version the index's own one is used
+        when(catalogVersions.current(CatalogVersions.PROMOTIONS)).thenThrow(new RuntimeException("Redis is down"));
+        assertEquals(3L, index.currentVersion());
+    }
+
+    @Test
+    void noTagWithoutAPromotionVersion() {
+        when(catalogVersions.current(CatalogVersions.PROMOTIONS)).thenThrow(new RuntimeException("Redis is down"));
+
+        assertNull(index.priceStateTag(START));
+    }
+
+    private static Promotion promotion() {
+        Promotion promotion = new Promotion();
+        promotion.setId(1L);
+        promotion.setStartDate(START);
+        promotion.setEndDate(END);
+        promotion.setCategory("Electronics");
+        promotion.setBrand("Acme");
+        return promotion;
+    }
+}
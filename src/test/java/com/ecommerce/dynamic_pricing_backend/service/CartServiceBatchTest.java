@@ -0,0 +1,139 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.CartDto;
+import com.ecommerce.dynamic_pricing_backend.dto.CartItemDto;
+import com.ecommerce.dynamic_pricing_backend.dto.CartItemOperation;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.CartItemRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.CartRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartServiceBatchTest {
+    private CartRepository cartRepository;
+    private ProductRepository productRepository;
+    private PricingService pricingService;
+    private HotCartStore hotCartStore;
+    private CartService cartService;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        cartRepository = mock(CartRepository.class);
+        productRepository = mock(ProductRepository.class);
+        pricingService = mock(PricingService.class);
+        hotCartStore = mock(HotCartStore.class);
+        cartService = new CartService(cartRepository, mock(CartItemRepository.class), productRepository,
+                pricingService, hotCartStore);
+
+        cart = new Cart();
+        cart.setId(1L);
+        cart.getItems().add(item(cart, product(1L, 10), 2));
+        cart.getItems().add(item(cart, product(2L, 10), 1));
+
+        when(cartRepository.findByUserIdWithItems(7L)).thenReturn(Optional.of(cart));
+        when(productRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(product(1L, 10), product(2L, 10), product(3L, 4)));
+        when(pricingService.calculateCartPricing(any(Cart.class))).thenReturn(new PriceCalculationResult());
+    }
+
+    @Test
+    void checkoutTakesOnlyTheOrderedLinesOutOfTheCart() {
+        when(hotCartStore.isEnabled()).thenReturn(true);
+
+        cartService.clearCart(7L, Map.of(1L, 2));
+
+        assertEquals(1, cart.getItems().size());
+        assertEquals(2L, cart.getItems().get(0).getProduct().getId());
+        // the cart is not written through again, which would take items added since checkout read it
+        verify(hotCartStore, never()).flush(any());
+        verify(hotCartStore).removeAfterCommit(7L, Map.of(1L, 2));
+    }
+
+    @Test
+    void operationsAreAppliedInOrderAndPricedOnce() {
+        CartDto dto = cartService.applyCartOperations(7L, List.of(
+                operation(CartItemOperation.Action.ADD, 1L, 3),
+                operation(CartItemOperation.Action.REMOVE, 2L, null),
+                operation(CartItemOperation.Action.ADD, 3L, 2),
+                operation(CartItemOperation.Action.UPDATE, 3L, 4)));
+
+        List<CartItemDto> items = dto.getItems();
+        assertEquals(2, items.size());
+        assertEquals(1L, items.get(0).getProductId());
+        assertEquals(5, items.get(0).getQuantity());
+        assertEquals(3L, items.get(1).getProductId());
+        assertEquals(4, items.get(1).getQuantity());
+        assertEquals(new BigDecimal("90.00"), cart.getTotalAmount());
+
+        verify(cartRepository, times(1)).findByUserIdWithItems(7L);
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        verify(pricingService, times(1)).calculateCartPricing(any(Cart.class));
+    }
+
+    @Test
+    void aFailingOperationLeavesTheCartUntouched() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cartService.applyCartOperations(7L, List.of(
+                operation(CartItemOperation.Action.ADD, 1L, 3),
+                operation(CartItemOperation.Action.ADD, 3L, 5))));
+
+        assertEquals("Insufficient stock. Available: 4", e.getMessage());
+        assertEquals(2, cart.getItems().size());
+        assertEquals(2, cart.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void updatingAnItemNotInTheCartFails() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cartService.applyCartOperations(7L, List.of(
+                operation(CartItemOperation.Action.UPDATE, 3L, 1))));
+
+        assertEquals("Item not found in cart", e.getMessage());
+    }
+
+    private static CartItemOperation operation(CartItemOperation.Action action, Long productId, Integer quantity) {
+        CartItemOperation operation = new CartItemOperation();
+        operation.setAction(action);
+        operation.setProductId(productId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private static Product product(Long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(stock);
+        product.setActive(true);
+        return product;
+    }
+
+    private static CartItem item(Cart cart, Product product, int quantity) {
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setUnitPrice(product.getPrice());
+        item.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+        return item;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.CartRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotCartStoreTest {
+    private StringRedisTemplate redisTemplate;
+    private SetOperations<String, String> setOperations;
+    private CartRepository cartRepository;
+    private ProductRepository productRepository;
+    private HotCartStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(hashOperations.entries("cart:7")).thenReturn(Map.of(
+                "_id", "1", "_version", "4", "_created", "null", "_updated", "null", "5", "2:10.00"));
+
+        cartRepository = mock(CartRepository.class);
+        productRepository = mock(ProductRepository.class);
+        store = new HotCartStore(redisTemplate, cartRepository, productRepository, mock(ProductCatalog.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), HotCartStore.REDIS,
+                Duration.ofHours(24), 100);
+    }
+
+    @Test
+    void aCopyTheTablesAreAlreadyPastIsNotWrittenBack() {
+        // e.g. a checkout cleared the cart, and bumped its version, after the copy was read
+        when(cartRepository.advanceVersion(1L, 4L)).thenReturn(0);
+
+        assertEquals(Map.of(5L, 2), store.flush(7L));
+
+        verify(cartRepository, never()).findByUserIdWithItems(anyLong());
+    }
+
+    @Test
+    void aNewerCopyReplacesTheItemsInTheTables() {
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cart.setVersion(3L);
+        CartItem stale = new CartItem();
+        stale.setCart(cart);
+        stale.setProduct(product(6L));
+        stale.setQuantity(1);
+        cart.getItems().add(stale);
+        when(cartRepository.advanceVersion(1L, 4L)).thenReturn(1);
+        when(cartRepository.findByUserIdWithItems(7L)).thenReturn(Optional.of(cart));
+        when(productRepository.getReferenceById(5L)).thenReturn(product(5L));
+
+        store.flush(7L);
+
+        assertEquals(1, cart.getItems().size());
+        assertEquals(5L, cart.getItems().get(0).getProduct().getId());
+        assertEquals(2, cart.getItems().get(0).getQuantity());
+        assertEquals(new BigDecimal("20.00"), cart.getTotalAmount());
+        assertEquals(4L, cart.getVersion());
+    }
+
+    @Test
+    void aCartWrittenBackByARolledBackCheckoutStaysDirty() {
+        // e.g. the checkout failed on a product without stock after writing the cart through
+        when(cartRepository.advanceVersion(1L, 4L)).thenReturn(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.flush(7L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        verify(setOperations, never()).remove(any(), any());
+    }
+
+    @Test
+    void aCommittedWriteBackMarksTheCartCleanIfItIsUnchanged() {
+        when(cartRepository.advanceVersion(1L, 4L)).thenReturn(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.flush(7L);
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // the script only clears the marker while the cart is still at the version written back
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("cart:7", "cart:dirty")), eq("4"), eq("7"));
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.entity.OrderItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class InventoryReservationServiceTest {
+    private final Product scarce = product(1L, 3);
+    private final Product plenty = product(2L, 100);
+
+    @Test
+    void holdsCannotExceedStock() {
+        InventoryReservationService service = service(Duration.ofMinutes(15));
+        service.hold("A", List.of(item(scarce, 2)));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.hold("B", List.of(item(plenty, 5), item(scarce, 2))));
+
+        assertEquals("Insufficient stock for product: Product 1", e.getMessage());
+        // the rejected hold took nothing, not even its line that fitted
+        assertDoesNotThrow(() -> service.hold("C", List.of(item(plenty, 100))));
+    }
+
+    @Test
+    void releasingAHoldFreesItsStockOnce() {
+        InventoryReservationService service = service(Duration.ofMinutes(15));
+        service.hold("A", List.of(item(scarce, 3)));
+
+        assertTrue(service.release("A"));
+        assertFalse(service.release("A"));
+        assertDoesNotThrow(() -> service.hold("B", List.of(item(scarce, 3))));
+    }
+
+    @Test
+    void aRolledBackRepeatOfAHoldLeavesTheOriginalInPlace() {
+        InventoryReservationService service = service(Duration.ofMinutes(15));
+        service.hold("A", List.of(item(scarce, 3)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.hold("A", List.of(item(scarce, 3)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThrows(RuntimeException.class, () -> service.hold("B", List.of(item(scarce, 1))));
+    }
+
+    @Test
+    void expiredHoldsAreSweptAway() {
+        InventoryReservationService service = service(Duration.ZERO);
+        service.hold("A", List.of(item(scarce, 3)));
+
+        service.releaseExpiredHolds();
+
+        assertFalse(service.release("A"));
+        assertDoesNotThrow(() -> service.hold("B", List.of(item(scarce, 3))));
+    }
+
+    private static InventoryReservationService service(Duration holdTtl) {
+        return new InventoryReservationService(mock(StringRedisTemplate.class), holdTtl, false, 4);
+    }
+
+    private static Product product(Long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    private static OrderItem item(Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MinorUnitPricingTest {
+
+    @Test
+    void roundsHalfAwayFromZero() {
+        assertEquals(3L, MinorUnitPricing.divideHalfUp(25_000L, 10_000L));
+        assertEquals(2L, MinorUnitPricing.divideHalfUp(24_999L, 10_000L));
+        assertEquals(-3L, MinorUnitPricing.divideHalfUp(-25_000L, 10_000L));
+        assertEquals(-2L, MinorUnitPricing.divideHalfUp(-24_999L, 10_000L));
+        assertEquals(0L, MinorUnitPricing.divideHalfUp(0L, 10_000L));
+    }
+
+    @Test
+    void convertsOnlyExactMinorUnits() {
+        assertEquals(1999L, MinorUnitPricing.toMinorUnits(new BigDecimal("19.99")));
+        assertEquals(1250L, MinorUnitPricing.toBasisPoints(new BigDecimal("12.5")));
+        assertEquals(new BigDecimal("19.99"), MinorUnitPricing.toBigDecimal(1999L));
+        assertThrows(ArithmeticException.class, () -> MinorUnitPricing.toMinorUnits(new BigDecimal("19.995")));
+    }
+
+    @Test
+    void percentageOffMatchesBigDecimalRoundedToCents() {
+        // 19.99 - 12.5% = 17.49125 -> 17.49
+        assertEquals(1749L, MinorUnitPricing.applyPercentageOff(1999L, 1250L));
+        // 0.05 - 50% = 0.025 -> 0.03
+        assertEquals(3L, MinorUnitPricing.applyPercentageOff(5L, 5000L));
+    }
+
+    @Test
+    void fixedAmountOffNeverGoesBelowZero() {
+        assertEquals(0L, MinorUnitPricing.applyFixedAmountOff(500L, 1000L));
+        assertEquals(500L, MinorUnitPricing.applyFixedAmountOff(1500L, 1000L));
+    }
+
+    @Test
+    void promotionDiscountMatchesBigDecimalImplementation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal cartTotal = randomAmount(random, 100_000_00L);
+            boolean percentage = random.nextBoolean();
+            BigDecimal discountValue = percentage ? randomAmount(random, 100_00L) : randomAmount(random, 500_00L);
+            BigDecimal minOrderAmount = random.nextBoolean() ? null : randomAmount(random, 1_000_00L);
+            BigDecimal maxDiscountAmount = random.nextBoolean() ? null : randomAmount(random, 200_00L);
+
+            BigDecimal expected = referencePromotionDiscount(cartTotal, percentage, discountValue,
+                    minOrderAmount, maxDiscountAmount);
+            long actual = MinorUnitPricing.promotionDiscount(
+                    MinorUnitPricing.toMinorUnits(cartTotal),
+                    percentage,
+                    percentage ? MinorUnitPricing.toBasisPoints(discountValue) : MinorUnitPricing.toMinorUnits(discountValue),
+                    MinorUnitPricing.toMinorUnitsOrNoLimit(minOrderAmount),
+                    MinorUnitPricing.toMinorUnitsOrNoLimit(maxDiscountAmount));
+
+            assertEquals(expected, MinorUnitPricing.toBigDecimal(actual));
+        }
+    }
+
+    @Test
+    void promotionPriceMatchesBigDecimalImplementationRoundedToCents() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal price = randomAmount(random, 10_000_00L);
+            boolean percentage = random.nextBoolean();
+            BigDecimal discountValue = percentage ? randomAmount(random, 100_00L) : randomAmount(random, 500_00L);
+
+            BigDecimal expected = referencePromotionPrice(price, percentage, discountValue)
+                    .setScale(MinorUnitPricing.MONEY_SCALE, RoundingMode.HALF_UP);
+            long actual = percentage
+                    ? MinorUnitPricing.applyPercentageOff(MinorUnitPricing.toMinorUnits(price),
+                    MinorUnitPricing.toBasisPoints(discountValue))
+                    : MinorUnitPricing.applyFixedAmountOff(MinorUnitPricing.toMinorUnits(price),
+                    MinorUnitPricing.toMinorUnits(discountValue));
+
+            assertEquals(expected, MinorUnitPricing.toBigDecimal(actual));
+        }
+    }
+
+    private BigDecimal randomAmount(Random random, long maxMinorUnits) {
+        return BigDecimal.valueOf((long) (random.nextDouble() * maxMinorUnits), 2);
+    }
+
+    // BigDecimal arithmetic as previously used by PricingService.calculatePromotionDiscount
+    private BigDecimal referencePromotionDiscount(BigDecimal cartTotal, boolean percentage, BigDecimal discountValue,
+                                                  BigDecimal minOrderAmount, BigDecimal maxDiscountAmount) {
+        if (minOrderAmount != null && cartTotal.compareTo(minOrderAmount) < 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+
+        BigDecimal discount;
+        if (percentage) {
+            discount = cartTotal.multiply(discountValue.divide(BigDecimal.valueOf(100)));
+        } else {
+            discount = discountValue;
+        }
+
+        if (maxDiscountAmount != null && discount.compareTo(maxDiscountAmount) > 0) {
+            discount = maxDiscountAmount;
+        }
+
+        return discount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // BigDecimal arithmetic as previously used by PricingService.applyPromotionToPrice
+    private BigDecimal referencePromotionPrice(BigDecimal originalPrice, boolean percentage, BigDecimal discountValue) {
+        if (percentage) {
+            BigDecimal discount = originalPrice.multiply(discountValue.divide(BigDecimal.valueOf(100)));
+            return originalPrice.subtract(discount);
+        } else {
+            return originalPrice.subtract(discountValue).max(BigDecimal.ZERO);
+        }
+    }
+}
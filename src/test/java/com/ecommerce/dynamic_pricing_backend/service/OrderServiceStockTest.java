@@ -0,0 +1,132 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.entity.Order;
+import com.ecommerce.dynamic_pricing_backend.entity.OrderItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.entity.User;
+import com.ecommerce.dynamic_pricing_backend.repository.CartRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.OrderItemRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceStockTest {
+    private OrderRepository orderRepository;
+    private ProductService productService;
+    private PaymentService paymentService;
+    private InventoryReservationService inventoryReservationService;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        productService = mock(ProductService.class);
+        inventoryReservationService = mock(InventoryReservationService.class);
+        paymentService = mock(PaymentService.class);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        orderService = new OrderService(orderRepository, mock(OrderItemRepository.class), mock(CartRepository.class),
+                mock(CartService.class), productService, mock(PricingService.class), paymentService,
+                mock(PromotionService.class), inventoryReservationService);
+    }
+
+    @Test
+    void paymentTakesTheHeldStockAndReleasesTheHold() {
+        Order order = pendingOrder("hold-1");
+
+        orderService.recordPaymentResult("ORD-1", "PAY-1", true);
+
+        assertEquals(Order.OrderStatus.CONFIRMED, order.getStatus());
+        verify(productService).decrementStock(order.getOrderItems());
+        verify(inventoryReservationService).releaseAfterCommit("hold-1");
+    }
+
+    @Test
+    void paymentForStockSoldSinceTheHoldExpiredFailsTheOrderAndRefunds() {
+        Order order = pendingOrder("hold-1");
+        doThrow(new InsufficientStockException("Insufficient stock for product: Product 5"))
+                .when(productService).decrementStock(order.getOrderItems());
+
+        orderService.recordPaymentResult("ORD-1", "PAY-1", true);
+
+        assertEquals(Order.OrderStatus.FAILED, order.getStatus());
+        verify(paymentService).processRefund("PAY-1", new BigDecimal("20.00"));
+        verify(inventoryReservationService).releaseAfterCommit("hold-1");
+    }
+
+    @Test
+    void paymentForAnOrderPlacedBeforeHoldsTakesNoStock() {
+        Order order = pendingOrder(null);
+
+        orderService.recordPaymentResult("ORD-1", "PAY-1", true);
+
+        assertEquals(Order.OrderStatus.CONFIRMED, order.getStatus());
+        verify(productService, never()).decrementStock(anyCollection());
+        verify(inventoryReservationService, never()).releaseAfterCommit(any());
+    }
+
+    @Test
+    void failedPaymentGivesBackStockTakenAtCheckoutBeforeHolds() {
+        Order order = pendingOrder(null);
+
+        orderService.recordPaymentResult("ORD-1", "PAY-1", false);
+
+        assertEquals(Order.OrderStatus.FAILED, order.getStatus());
+        verify(productService).restoreStock(order.getOrderItems());
+    }
+
+    @Test
+    void cancellingAnOrderPlacedBeforeHoldsRestocks() {
+        Order order = pendingOrder(null);
+        when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(order));
+
+        orderService.cancelOrder(1L, 7L);
+
+        assertEquals(Order.OrderStatus.CANCELLED, order.getStatus());
+        verify(productService).restoreStock(order.getOrderItems());
+        verify(inventoryReservationService, never()).releaseAfterCommit(any());
+    }
+
+    @Test
+    void cancellingAHeldOrderOnlyReleasesTheHold() {
+        Order order = pendingOrder("hold-1");
+        when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(order));
+
+        orderService.cancelOrder(1L, 7L);
+
+        verify(productService, never()).restoreStock(anyCollection());
+        verify(inventoryReservationService).releaseAfterCommit("hold-1");
+    }
+
+    private Order pendingOrder(String stockHoldId) {
+        User user = new User();
+        user.setId(7L);
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-1");
+        order.setUser(user);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("20.00"));
+        order.setStockHoldId(stockHoldId);
+        Product product = new Product();
+        product.setId(5L);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(2);
+        order.getOrderItems().add(item);
+        when(orderRepository.findByOrderNumber("ORD-1")).thenReturn(Optional.of(order));
+        return order;
+    }
+}
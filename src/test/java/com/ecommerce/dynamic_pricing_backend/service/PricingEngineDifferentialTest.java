@@ -0,0 +1,212 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.config.DroolsConfig;
+import com.ecommerce.dynamic_pricing_backend.dto.CreatePricingRuleVersionRequest;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.entity.PricingRuleVersion;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.PricingRuleVersionRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prices the same carts with the Drools and the native engine and requires identical results.
+ */
+class PricingEngineDifferentialTest {
+    private static final String FLAT_FIVE_OFF = """
+            package com.ecommerce.rules
+
+            import com.ecommerce.dynamic_pricing_backend.dto.CartDto
+            import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult
+            import java.math.BigDecimal
+
+            rule "Flat Five Off"
+                when
+                    $cart : CartDto()
+                    $result : PriceCalculationResult()
+                then
+                    $result.setDiscountAmount($result.getDiscountAmount().add(new BigDecimal("5.00")));
+                    $result.getAppliedDiscounts().add("Flat 5 Off");
+            end
+            """;
+
+    // a combined constraint, which the native translation does not support
+    private static final String BIG_BULK_OFF = """
+            package com.ecommerce.rules
+
+            import com.ecommerce.dynamic_pricing_backend.dto.CartDto
+            import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult
+            import java.math.BigDecimal
+
+            rule "Big Bulk Off"
+                when
+                    $cart : CartDto(items.size() >= 2, subtotal >= 100)
+                    $result : PriceCalculationResult()
+                then
+                    $result.setDiscountAmount($result.getDiscountAmount().add(new BigDecimal("7.00")));
+                    $result.getAppliedDiscounts().add("Big Bulk 7 Off");
+            end
+            """;
+
+    private static PricingEngine drools;
+    private static PricingEngine nativeEngine;
+
+    @BeforeAll
+    static void buildEngines() {
+        DroolsPricingEngine droolsEngine = new DroolsPricingEngine(new PricingRuleService(
+                mock(PricingRuleVersionRepository.class), new DroolsConfig().kieContainer()));
+        drools = droolsEngine;
+        nativeEngine = new NativePricingEngine(droolsEngine);
+    }
+
+    @Test
+    void theBundledRulesAreEvaluatedNatively() {
+        PricingRuleService pricingRuleService = new PricingRuleService(mock(PricingRuleVersionRepository.class),
+                new DroolsConfig().kieContainer());
+        // the promotion rules match facts pricing never inserts, so only the two discount rules remain
+        assertEquals(2, pricingRuleService.getActiveRules().getNativeRules().size());
+
+        PriceCalculationResult result = price(nativeEngine, cart(new long[]{10_000, 10_000, 10_000}, new int[]{1, 1, 1}));
+        assertNull(result.getPricingEngine());
+        assertEquals(0L, ((NativePricingEngine) nativeEngine).getDroolsFallbackCount());
+    }
+
+    @Test
+    void aPublishedVersionIsTranslatedForTheNativeEngine() throws Exception {
+        PricingRuleService pricingRuleService = publish(FLAT_FIVE_OFF);
+        try {
+            DroolsPricingEngine publishedDrools = new DroolsPricingEngine(pricingRuleService);
+            NativePricingEngine publishedNative = new NativePricingEngine(publishedDrools);
+
+            Cart cart = cart(new long[]{10_000, 10_000, 10_000}, new int[]{1, 1, 1});
+            PriceCalculationResult result = price(publishedNative, cart);
+            assertEquals(7L, publishedNative.getVersion());
+            assertEquals(7L, result.getRuleVersion());
+            assertEquals(List.of("Flat 5 Off"), result.getAppliedDiscounts());
+            assertEquals(price(publishedDrools, cart).getDiscountAmount(), result.getDiscountAmount());
+            assertNull(result.getPricingEngine());
+            assertEquals(0L, publishedNative.getDroolsFallbackCount());
+        } finally {
+            pricingRuleService.shutdown();
+        }
+    }
+
+    @Test
+    void aVersionTheNativeEngineCannotTranslateIsReportedAsPricedByDrools() throws Exception {
+        PricingRuleService pricingRuleService = publish(BIG_BULK_OFF);
+        try {
+            DroolsPricingEngine publishedDrools = new DroolsPricingEngine(pricingRuleService);
+            NativePricingEngine publishedNative = new NativePricingEngine(publishedDrools);
+
+            Cart cart = cart(new long[]{5_000, 5_000}, new int[]{1, 1});
+            PriceCalculationResult result = price(publishedNative, cart);
+            assertEquals(DroolsPricingEngine.NAME, result.getPricingEngine());
+            assertEquals(1L, publishedNative.getDroolsFallbackCount());
+            assertEquals(List.of("Big Bulk 7 Off"), result.getAppliedDiscounts());
+            assertEquals(price(publishedDrools, cart).getDiscountAmount(), result.getDiscountAmount());
+        } finally {
+            pricingRuleService.shutdown();
+        }
+    }
+
+    @Test
+    void enginesAgreeOnRuleBoundaries() {
+        // below and at the $200 threshold, below and at the 3 line threshold
+        assertSameResult(cart(new long[]{19_999}, new int[]{1}));
+        assertSameResult(cart(new long[]{20_000}, new int[]{1}));
+        assertSameResult(cart(new long[]{5_000, 5_000}, new int[]{1, 1}));
+        assertSameResult(cart(new long[]{100, 100, 100}, new int[]{1, 1, 1}));
+        assertSameResult(cart(new long[]{6_667, 6_667, 6_666}, new int[]{1, 1, 1}));
+        assertSameResult(cart(new long[0], new int[0]));
+    }
+
+    @Test
+    void enginesAgreeOnRandomCarts() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            int lines = random.nextInt(8);
+            long[] unitPrices = new long[lines];
+            int[] quantities = new int[lines];
+            for (int line = 0; line < lines; line++) {
+                unitPrices[line] = 1 + random.nextInt(15_000);
+                quantities[line] = 1 + random.nextInt(5);
+            }
+            assertSameResult(cart(unitPrices, quantities));
+        }
+    }
+
+    // creates rule version 7 and waits until it is published
+    private static PricingRuleService publish(String drl) throws InterruptedException {
+        PricingRuleVersionRepository repository = mock(PricingRuleVersionRepository.class);
+        when(repository.save(any(PricingRuleVersion.class))).thenAnswer(invocation -> {
+            PricingRuleVersion version = invocation.getArgument(0);
+            version.setId(7L);
+            return version;
+        });
+        PricingRuleService pricingRuleService = new PricingRuleService(repository, new DroolsConfig().kieContainer());
+        CreatePricingRuleVersionRequest request = new CreatePricingRuleVersionRequest();
+        request.setDrl(drl);
+        pricingRuleService.createVersion(request);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pricingRuleService.getActiveRules().getVersion() != 7L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return pricingRuleService;
+    }
+
+    private void assertSameResult(Cart cart) {
+        PriceCalculationResult expected = price(drools, cart);
+        PriceCalculationResult actual = price(nativeEngine, cart);
+
+        // equals, not compareTo: the scale must match too
+        assertEquals(expected.getDiscountAmount(), actual.getDiscountAmount());
+        assertEquals(expected.getAppliedDiscounts(), actual.getAppliedDiscounts());
+    }
+
+    private PriceCalculationResult price(PricingEngine engine, Cart cart) {
+        long subtotal = 0L;
+        for (CartItem item : cart.getItems()) {
+            subtotal += MinorUnitPricing.lineTotal(MinorUnitPricing.toMinorUnits(item.getUnitPrice()), item.getQuantity());
+        }
+
+        PriceCalculationResult result = new PriceCalculationResult();
+        result.setOriginalTotal(MinorUnitPricing.toBigDecimal(subtotal));
+        result.setDiscountAmount(BigDecimal.ZERO);
+        result.setAppliedDiscounts(new ArrayList<>());
+        engine.applyDiscounts(cart, result);
+        return result;
+    }
+
+    private Cart cart(long[] unitPrices, int[] quantities) {
+        Cart cart = new Cart();
+        for (int i = 0; i < unitPrices.length; i++) {
+            BigDecimal unitPrice = MinorUnitPricing.toBigDecimal(unitPrices[i]);
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setPrice(unitPrice);
+
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(quantities[i]);
+            item.setUnitPrice(unitPrice);
+            item.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(quantities[i])));
+            cart.getItems().add(item);
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.config.DroolsConfig;
+import com.ecommerce.dynamic_pricing_backend.dto.CartDto;
+import com.ecommerce.dynamic_pricing_backend.dto.CreatePricingRuleVersionRequest;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.PricingRuleVersion;
+import com.ecommerce.dynamic_pricing_backend.repository.PricingRuleVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PricingRuleServiceTest {
+    private static final String FLAT_FIVE_OFF = """
+            package com.ecommerce.rules
+
+            import com.ecommerce.dynamic_pricing_backend.dto.CartDto
+            import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult
+            import java.math.BigDecimal
+
+            rule "Flat Five Off"
+                when
+                    $cart : CartDto()
+                    $result : PriceCalculationResult()
+                then
+                    $result.setDiscountAmount($result.getDiscountAmount().add(new BigDecimal("5.00")));
+                    $result.getAppliedDiscounts().add("Flat 5 Off");
+            end
+            """;
+
+    private PricingRuleVersionRepository repository;
+    private PricingRuleService pricingRuleService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PricingRuleVersionRepository.class);
+        when(repository.save(any(PricingRuleVersion.class))).thenAnswer(invocation -> {
+            PricingRuleVersion version = invocation.getArgument(0);
+            if (version.getId() == null) {
+                version.setId(7L);
+            }
+            return version;
+        });
+        pricingRuleService = new PricingRuleService(repository, new DroolsConfig().kieContainer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pricingRuleService.shutdown();
+    }
+
+    @Test
+    void publishesNewVersionWithoutDisturbingCallsHoldingTheOldOne() throws Exception {
+        CompiledRuleSet classpathRules = pricingRuleService.getActiveRules();
+        assertEquals(0L, classpathRules.getVersion());
+
+        pricingRuleService.createVersion(request(FLAT_FIVE_OFF));
+        CompiledRuleSet published = awaitVersion(7L);
+
+        assertEquals("Flat 5 Off", price(published).getAppliedDiscounts().get(0));
+        // a call that read the old rule set before the swap still prices with it
+        assertEquals("$25 Off Orders Over $200", price(classpathRules).getAppliedDiscounts().get(0));
+        verify(repository, timeout(5_000)).activateVersion(eq(7L), any());
+    }
+
+    @Test
+    void rollsBackToTheBundledRules() throws Exception {
+        pricingRuleService.createVersion(request(FLAT_FIVE_OFF));
+        awaitVersion(7L);
+
+        pricingRuleService.activateVersion(0L);
+
+        assertEquals("$25 Off Orders Over $200", price(awaitVersion(0L)).getAppliedDiscounts().get(0));
+        verify(repository, timeout(5_000)).activateVersion(eq(0L), any());
+    }
+
+    @Test
+    void marksTheVersionFailedWhenPublishingThrows() {
+        PricingRuleVersion stored = new PricingRuleVersion();
+        stored.setId(7L);
+        when(repository.findById(7L)).thenReturn(Optional.of(stored));
+
+        // no DRL at all fails inside the compiler rather than with compilation errors
+        pricingRuleService.createVersion(request(null));
+
+        verify(repository, timeout(10_000).times(2)).save(any(PricingRuleVersion.class));
+        assertEquals(PricingRuleVersion.Status.FAILED, stored.getStatus());
+        assertEquals(0L, pricingRuleService.getActiveRules().getVersion());
+    }
+
+    @Test
+    void keepsCurrentRulesWhenNewVersionFailsToCompile() {
+        PricingRuleVersion stored = new PricingRuleVersion();
+        stored.setId(7L);
+        when(repository.findById(7L)).thenReturn(Optional.of(stored));
+
+        pricingRuleService.createVersion(request("rule \"Broken\" when then nonsense("));
+
+        verify(repository, timeout(10_000).times(2)).save(any(PricingRuleVersion.class));
+        assertEquals(PricingRuleVersion.Status.FAILED, stored.getStatus());
+        assertNotNull(stored.getCompilationErrors());
+        assertEquals(0L, pricingRuleService.getActiveRules().getVersion());
+    }
+
+    private CompiledRuleSet awaitVersion(long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pricingRuleService.getActiveRules().getVersion() != version && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(version, pricingRuleService.getActiveRules().getVersion());
+        return pricingRuleService.getActiveRules();
+    }
+
+    private PriceCalculationResult price(CompiledRuleSet rules) {
+        CartDto cart = new CartDto();
+        cart.setItems(new ArrayList<>());
+        cart.setSubtotal(new BigDecimal("250.00"));
+        PriceCalculationResult result = new PriceCalculationResult();
+        result.setDiscountAmount(BigDecimal.ZERO);
+        result.setAppliedDiscounts(new ArrayList<>());
+        rules.getSession().execute(List.of(cart, result));
+        return result;
+    }
+
+    private CreatePricingRuleVersionRequest request(String drl) {
+        CreatePricingRuleVersionRequest request = new CreatePricingRuleVersionRequest();
+        request.setDescription("test");
+        request.setDrl(drl);
+        return request;
+    }
+}
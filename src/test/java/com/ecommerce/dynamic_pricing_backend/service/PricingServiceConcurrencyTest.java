@@ -0,0 +1,166 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.config.DroolsConfig;
+import com.ecommerce.dynamic_pricing_backend.dto.PriceCalculationResult;
+import com.ecommerce.dynamic_pricing_backend.entity.Cart;
+import com.ecommerce.dynamic_pricing_backend.entity.CartItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.DiscountRuleRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.PricingRuleVersionRepository;
+import com.ecommerce.dynamic_pricing_backend.repository.PromotionRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.KieContainer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PricingServiceConcurrencyTest {
+    private static final int CALLS_PER_THREAD = 500;
+
+    private static KieContainer kieContainer;
+
+    @BeforeAll
+    static void buildRules() {
+        kieContainer = new DroolsConfig().kieContainer();
+    }
+
+    @Test
+    void concurrentCartsArePricedByDroolsWithoutFallingBack() throws Exception {
+        DiscountRuleRepository discountRuleRepository = mock(DiscountRuleRepository.class);
+        PricingService pricingService = new PricingService(new DiscountRuleEvaluator(discountRuleRepository),
+                mock(PromotionRepository.class), droolsEngines(),
+                mock(ActivePromotionIndex.class), new CartPricingCache(1, Duration.ZERO));
+
+        // throughput scaling is measured by PricingBenchmark.cartPricingDroolsAllThreads
+        priceConcurrently(pricingService, Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        // every call must have gone through the rules engine, never the database fallback
+        verify(discountRuleRepository, never()).findByActiveTrueOrderByPriorityDesc();
+    }
+
+    @Test
+    void repeatedCartViewsAreServedFromTheCartPricingCache() {
+        CartPricingCache cartPricingCache = new CartPricingCache(100, Duration.ofMinutes(5));
+        PricingService pricingService = new PricingService(new DiscountRuleEvaluator(mock(DiscountRuleRepository.class)),
+                mock(PromotionRepository.class), droolsEngines(),
+                mock(ActivePromotionIndex.class), cartPricingCache);
+
+        Cart cart = cart(new BigDecimal("40.00"), new BigDecimal("80.00"), new BigDecimal("120.00"));
+        PriceCalculationResult first = pricingService.calculateCartPricing(cart);
+        PriceCalculationResult second = pricingService.calculateCartPricing(cart);
+
+        assertEquals(first, second);
+        assertEquals(1, cartPricingCache.getHitCount());
+
+        // a changed quantity is a different fingerprint
+        cart.getItems().get(0).setQuantity(2);
+        PriceCalculationResult changed = pricingService.calculateCartPricing(cart);
+        assertEquals(0, new BigDecimal("53.00").compareTo(changed.getDiscountAmount()));
+        assertEquals(2, cartPricingCache.getMissCount());
+    }
+
+    @Test
+    void aFallbackResultIsNotCachedForTheFailedEngine() {
+        CartPricingCache cartPricingCache = new CartPricingCache(100, Duration.ofMinutes(5));
+        FlakyEngine engine = new FlakyEngine();
+        PricingService pricingService = new PricingService(new DiscountRuleEvaluator(mock(DiscountRuleRepository.class)),
+                mock(PromotionRepository.class), new PricingEngines(List.of(engine), FlakyEngine.NAME),
+                mock(ActivePromotionIndex.class), cartPricingCache);
+        Cart cart = cart(new BigDecimal("40.00"));
+
+        engine.failing = true;
+        assertEquals(PricingService.FALLBACK_ENGINE, pricingService.calculateCartPricing(cart).getPricingEngine());
+        assertEquals(0, cartPricingCache.size());
+
+        engine.failing = false;
+        PriceCalculationResult recovered = pricingService.calculateCartPricing(cart);
+        assertEquals(FlakyEngine.NAME, recovered.getPricingEngine());
+        assertEquals(0, new BigDecimal("1.00").compareTo(recovered.getDiscountAmount()));
+    }
+
+    private PricingEngines droolsEngines() {
+        PricingRuleService pricingRuleService = new PricingRuleService(mock(PricingRuleVersionRepository.class), kieContainer);
+        return new PricingEngines(List.of(new DroolsPricingEngine(pricingRuleService)), DroolsPricingEngine.NAME);
+    }
+
+    private void priceConcurrently(PricingService pricingService, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        // 3 lines worth 240.00 -> 10% bulk discount (24.00) + 25.00 high value discount
+                        PriceCalculationResult result = pricingService.calculateCartPricing(cart(
+                                new BigDecimal("40.00"), new BigDecimal("80.00"), new BigDecimal("120.00")));
+                        assertEquals(0, new BigDecimal("49.00").compareTo(result.getDiscountAmount()));
+                        assertEquals(0, new BigDecimal("191.00").compareTo(result.getFinalTotal()));
+                        assertEquals(2, result.getAppliedDiscounts().size());
+                        assertEquals(0L, result.getRuleVersion());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Cart cart(BigDecimal... unitPrices) {
+        Cart cart = new Cart();
+        long id = 1;
+        for (BigDecimal unitPrice : unitPrices) {
+            Product product = new Product();
+            product.setId(id++);
+            product.setPrice(unitPrice);
+
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setUnitPrice(unitPrice);
+            item.setTotalPrice(unitPrice);
+            cart.getItems().add(item);
+        }
+        return cart;
+    }
+
+    private static class FlakyEngine implements PricingEngine {
+        static final String NAME = "flaky";
+
+        volatile boolean failing;
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public long getVersion() {
+            return 0L;
+        }
+
+        @Override
+        public void applyDiscounts(Cart cart, PriceCalculationResult result) {
+            if (failing) {
+                throw new IllegalStateException("engine unavailable");
+            }
+            result.setDiscountAmount(result.getDiscountAmount().add(BigDecimal.ONE));
+            result.getAppliedDiscounts().add("One off");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.ProductDto;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.entity.Promotion;
+import com.ecommerce.dynamic_pricing_backend.repository.PromotionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PricingServiceProductPriceTest {
+    private ActivePromotionIndex activePromotionIndex;
+    private PricingService pricingService;
+
+    @BeforeEach
+    void setUp() {
+        activePromotionIndex = mock(ActivePromotionIndex.class);
+        pricingService = new PricingService(mock(DiscountRuleEvaluator.class), mock(PromotionRepository.class),
+                mock(PricingEngines.class), activePromotionIndex, new CartPricingCache(1, Duration.ZERO));
+    }
+
+    @Test
+    void promotionPricesAreRoundedHalfUpToCents() {
+        // the BigDecimal implementation this replaced returned 17.49125 and 0.025 unrounded
+        when(activePromotionIndex.findApplicablePromotions(eq("Electronics"), eq("Acme"), any()))
+                .thenReturn(List.of(percentageOff("12.5")));
+        when(activePromotionIndex.findApplicablePromotions(eq("Books"), eq("Acme"), any()))
+                .thenReturn(List.of(percentageOff("50")));
+
+        assertEquals(new BigDecimal("17.49"), pricingService.calculateProductPrice(product("Electronics", "19.99")));
+        assertEquals(new BigDecimal("0.03"), pricingService.calculateProductPrice(product("Books", "0.05")));
+        assertEquals(new BigDecimal("17.49"),
+                pricingService.quoteProductPrice(productDto("Electronics", "19.99")).getDiscountedPrice());
+    }
+
+    private static Promotion percentageOff(String percent) {
+        Promotion promotion = new Promotion();
+        promotion.setDiscountType(Promotion.DiscountType.PERCENTAGE);
+        promotion.setDiscountValue(new BigDecimal(percent));
+        return promotion;
+    }
+
+    private static Product product(String category, String price) {
+        Product product = new Product();
+        product.setId(1L);
+        product.setCategory(category);
+        product.setBrand("Acme");
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+
+    private static ProductDto productDto(String category, String price) {
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+        product.setCategory(category);
+        product.setBrand("Acme");
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
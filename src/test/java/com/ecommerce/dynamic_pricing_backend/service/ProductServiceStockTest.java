@@ -0,0 +1,114 @@
+package com.ecommerce.dynamic_pricing_backend.service;
+
+import com.ecommerce.dynamic_pricing_backend.dto.CreateProductRequest;
+import com.ecommerce.dynamic_pricing_backend.entity.OrderItem;
+import com.ecommerce.dynamic_pricing_backend.entity.Product;
+import com.ecommerce.dynamic_pricing_backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceStockTest {
+    private ProductRepository productRepository;
+    private CatalogVersions catalogVersions;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        catalogVersions = mock(CatalogVersions.class);
+        productService = new ProductService(productRepository, mock(PricingService.class),
+                mock(ProductCatalog.class), catalogVersions);
+    }
+
+    @Test
+    void linesAreDecrementedInOneBatchInProductIdOrder() {
+        SortedMap<Long, Integer> expected = new TreeMap<>();
+        expected.put(2L, 4);
+        expected.put(5L, 1);
+        when(productRepository.decrementStock(expected)).thenReturn(new int[]{1, 1});
+
+        productService.decrementStock(List.of(item(5L, 1), item(2L, 3), item(2L, 1)));
+
+        verify(productRepository).decrementStock(expected);
+        verify(catalogVersions).stockChangedAfterCommit(expected.keySet());
+        verify(catalogVersions, never()).productsChangedAfterCommit(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void aLineWithoutStockFailsTheBatchAndNamesItsProduct() {
+        when(productRepository.decrementStock(any())).thenReturn(new int[]{1, 0});
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> productService.decrementStock(List.of(item(1L, 1), item(9L, 2))));
+
+        assertEquals("Insufficient stock for product: Product 9", e.getMessage());
+        // the repository rolled the batch back, nothing is put back by hand
+        verify(productRepository, never()).incrementStock(any(), anyInt(), any());
+        verify(catalogVersions, never()).stockChangedAfterCommit(anyCollection());
+    }
+
+    @Test
+    void updateStockIsASingleConditionalUpdate() {
+        when(productRepository.decrementStock(eq(4L), eq(2), any())).thenReturn(1);
+
+        productService.updateStock(4L, 2);
+
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).existsById(any());
+        verify(catalogVersions).stockChangedAfterCommit(List.of(4L));
+    }
+
+    @Test
+    void aFailedStockUpdateTellsAMissingProductFromTooLittleStock() {
+        when(productRepository.existsById(4L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> productService.updateStock(4L, 2));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> productService.updateStock(5L, 2));
+        assertEquals("Product not found with id: 5", e.getMessage());
+    }
+
+    @Test
+    void aStockOnlyUpdateLeavesTheListingsAlone() {
+        Product product = item(3L, 1).getProduct();
+        product.setPrice(new BigDecimal("10.00"));
+        product.setActive(true);
+        when(productRepository.findById(3L)).thenReturn(Optional.of(product));
+        when(productRepository.save(product)).thenReturn(product);
+        CreateProductRequest request = new CreateProductRequest();
+        request.setStockQuantity(40);
+
+        productService.updateProduct(3L, request);
+        request.setPrice(new BigDecimal("12.00"));
+        productService.updateProduct(3L, request);
+
+        verify(catalogVersions).stockChangedAfterCommit(List.of(3L));
+        verify(catalogVersions).productsChangedAfterCommit(List.of(product), List.of());
+    }
+
+    private static OrderItem item(Long productId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setName("Product " + productId);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}